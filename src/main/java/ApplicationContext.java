@@ -16,9 +16,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 public class ApplicationContext {
     public final DataStorageService storage;
+    public final WriteBehindJournal journalWriter;
+    public final JournalCompactor compactor;
     public final BankingService bankingService;
     public final TransactionExecutionService executionService;
     public final InputReader input;
@@ -27,18 +30,59 @@ public class ApplicationContext {
     public final FileFlowHandler fileFlowHandler;
 
     public ApplicationContext() {
-        this.storage = new FileStorageService(
-                AppConfig.ACC_STORE_FILE_NAME,
-                AppConfig.TRANS_STORE_FILE_NAME
+        FileTransactionJournal journal = new FileTransactionJournal(AppConfig.TRANS_JOURNAL_FILE_NAME);
+        this.journalWriter = new WriteBehindJournal(
+                journal,
+                AppConfig.JOURNAL_QUEUE_CAPACITY,
+                AppConfig.JOURNAL_BATCH_SIZE,
+                AppConfig.JOURNAL_FSYNC_POLICY,
+                AppConfig.JOURNAL_FLUSH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS
         );
+        CustomerRegistry customers = new CustomerRegistry();
+        SegmentedTransactionStorageService segmentedStorage = new SegmentedTransactionStorageService(
+                new FileStorageService(
+                        AppConfig.ACC_STORE_FILE_NAME,
+                        AppConfig.TRANS_STORE_FILE_NAME,
+                        customers
+                ),
+                AppConfig.TRANS_SEGMENT_DIRECTORY,
+                AppConfig.TRANSACTION_SEGMENT_MAX_ROWS,
+                AppConfig.TRANSACTION_LOAD_WINDOW_DAYS
+        );
+        JournaledStorageService journaledStorage =
+                new JournaledStorageService(segmentedStorage, journal, journalWriter);
+        this.storage = new BinaryAccountStorageService(AppConfig.ACC_SNAPSHOT_FILE_NAME, journaledStorage, customers);
         Map<String, Account> savedAccounts = safeLoad(storage::loadAccounts, new HashMap<>());
+        // The snapshot is only as recent as the last compaction, the journal tail holds the rest
+        safeLoad(() -> journaledStorage.recoverBalances(savedAccounts), 0);
         Map<String, List<Transaction>> savedTransactions = safeLoad(storage::loadTransactions, new HashMap<>());
 
+        TransactionIdGenerator transactionIds = new TransactionIdGenerator();
+        // Queries reaching past the load window read the older segments on demand
+        TransactionManager transactionManager =
+                new TransactionManager(transactionIds, savedTransactions, segmentedStorage);
+        // Segments outside the load window still hold IDs that were handed out
+        long highestTransactionNumber = safeLoad(segmentedStorage::getMaxTransactionNumber, 0L);
+        if (highestTransactionNumber > transactionIds.getCounter()) {
+            transactionIds.setIdCounter(highestTransactionNumber);
+        }
+
         this.bankingService = new BankingService(
-                new AccountManager(new AccountIdGenerator(), savedAccounts),
-                new TransactionManager(new TransactionIdGenerator(), savedTransactions)
+                new AccountManager(
+                        new AccountIdGenerator(), savedAccounts, AppConfig.ACCOUNT_STORAGE_MODE, customers),
+                transactionManager,
+                journalWriter,
+                storage
+        );
+        this.compactor = new JournalCompactor(bankingService, storage, journal, journalWriter);
+        this.compactor.start(AppConfig.SNAPSHOT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        this.executionService = new TransactionExecutionService(
+                AppConfig.TRANSACTION_EXECUTION_MODE,
+                AppConfig.TRANSACTION_POOL_SIZE,
+                bankingService,
+                new ThreadErrorCollector()
         );
-        this.executionService = new TransactionExecutionService(3, bankingService, new ThreadErrorCollector());
         this.input = new InputReader(new Scanner(System.in));
         this.accountFlowHandler = new AccountFlowHandler(bankingService, input);
         this.transactionFlowHandler = new TransactionFlowHandler(bankingService, executionService, input);
@@ -2,6 +2,7 @@ import config.AppConfig;
 import services.*;
 import utils.DisplayUtil;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,6 +26,8 @@ public class TerminalApplication {
 
         this.commandMap.put(7, () -> {
             context.executionService.shutdown();
+            context.compactor.shutdown();
+            closeJournal();
             this.running = false;
         });
     }
@@ -52,13 +55,22 @@ public class TerminalApplication {
         }
     }
 
+    private void closeJournal() {
+        try {
+            // Writes out the transactions still queued for the journal
+            context.journalWriter.close();
+        } catch (IOException e) {
+            DisplayUtil.displayNotice("Could not write the remaining transactions: " + e.getMessage());
+        }
+    }
+
     private void displayLoadMessages() {
-        int accountsCount = context.bankingService.viewAllAccounts().size();
-        int transactionsCount = context.bankingService.viewAllTransactions().size();
+        int accountsCount = context.bankingService.getStoredAccountCount();
+        int transactionsCount = context.bankingService.getTransactionCount();
 
         DisplayUtil.displayNotice(
-                accountsCount + " accounts loaded from " + AppConfig.ACC_STORE_FILE_NAME);
-        DisplayUtil.displayNotice(
-                transactionsCount + " transactions loaded from " + AppConfig.TRANS_STORE_FILE_NAME);
+                accountsCount + " accounts loaded from " + AppConfig.ACC_SNAPSHOT_FILE_NAME);
+        DisplayUtil.displayNotice(transactionsCount + " transactions loaded from "
+                + AppConfig.TRANS_SEGMENT_DIRECTORY + "/ and " + AppConfig.TRANS_JOURNAL_FILE_NAME);
     }
 }
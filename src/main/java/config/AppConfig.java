@@ -1,16 +1,49 @@
 package config;
 
+import models.Money;
+import services.enums.AccountStorageMode;
+import services.enums.ExecutionMode;
+import services.enums.FsyncPolicy;
+
 public class AppConfig {
-    public static final double MINIMUM_INITIAL_DEPOSIT_SAVINGS = 500.00;
-    public static final double MINIMUM_INITIAL_DEPOSIT_CHECKING = 0.00;
-    public static final double MINIMUM_INITIAL_DEPOSIT_PREMIUM = 10000.00;
+    public static final Money MINIMUM_INITIAL_DEPOSIT_SAVINGS = Money.of(500);
+    public static final Money MINIMUM_INITIAL_DEPOSIT_CHECKING = Money.ZERO;
+    public static final Money MINIMUM_INITIAL_DEPOSIT_PREMIUM = Money.of(10000);
 
-    public static final double OVERDRAFT_LIMIT_CHECKING_ACCOUNT = 1000;
+    public static final Money OVERDRAFT_LIMIT_CHECKING_ACCOUNT = Money.of(1000);
     public static final double INTEREST_RATE_SAVINGS_ACCOUNT = 0.035;
 
     public static final int MAX_ACCOUNTS = 50;
     public static final int MAX_TRANSACTIONS = 200;
 
+    // Longest customer name and address accepted, bounded by their fields in the binary account record
+    public static final int MAX_NAME_LENGTH = 63;
+    public static final int MAX_ADDRESS_LENGTH = 95;
+
+    public static final int ACCOUNT_LISTING_PAGE_SIZE = 20;
+    public static final int TRANSACTION_HISTORY_PAGE_SIZE = 20;
+
+    public static final AccountStorageMode ACCOUNT_STORAGE_MODE = AccountStorageMode.HEAP;
+
+    public static final int ACCOUNT_LOCK_STRIPES = 64;
+    public static final int TRANSACTION_ID_BLOCK_SIZE = 64;
+
+    public static final ExecutionMode TRANSACTION_EXECUTION_MODE = ExecutionMode.FIXED_POOL;
+    public static final int TRANSACTION_POOL_SIZE = 3;
+
+    public static final int JOURNAL_QUEUE_CAPACITY = 8192;
+    public static final int JOURNAL_BATCH_SIZE = 512;
+    public static final FsyncPolicy JOURNAL_FSYNC_POLICY = FsyncPolicy.INTERVAL;
+    public static final long JOURNAL_FLUSH_INTERVAL_MILLIS = 100;
+    public static final long SNAPSHOT_INTERVAL_SECONDS = 60;
+
+    public static final int TRANSACTION_SEGMENT_MAX_ROWS = 100_000;
+    // Days of history loaded at startup, 0 loads all of it. Older transactions stay in their segments
+    public static final int TRANSACTION_LOAD_WINDOW_DAYS = 0;
+
     public static final String ACC_STORE_FILE_NAME = "accounts.txt";
+    public static final String ACC_SNAPSHOT_FILE_NAME = "accounts.snapshot";
     public static final String TRANS_STORE_FILE_NAME = "transactions.txt";
+    public static final String TRANS_JOURNAL_FILE_NAME = "transactions.journal";
+    public static final String TRANS_SEGMENT_DIRECTORY = "transactions";
 }
@@ -10,6 +10,7 @@ import utils.DisplayUtil;
 import utils.InputReader;
 import utils.ValidationUtil;
 
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public class AccountFlowHandler {
@@ -37,6 +38,9 @@ public class AccountFlowHandler {
         } catch (OverdraftExceededException | InsufficientFundsException e) {
             DisplayUtil.displayNotice(e.getMessage());
             return;
+        } catch (UncheckedIOException e) {
+            DisplayUtil.displayNotice("Account could not be saved: " + e.getMessage());
+            return;
         }
 
         System.out.println();
@@ -86,7 +90,7 @@ public class AccountFlowHandler {
     private Account createAccountFlow(Customer customer) throws OverdraftExceededException, InsufficientFundsException {
         int accountType = this.input.readInt("Select type (1-2)", 1, 2);
 
-        double initialDeposit = getInitialDeposit(customer, accountType);
+        Money initialDeposit = getInitialDeposit(customer, accountType);
 
         Account newAccount = switch (accountType) {
             case 1 -> this.bankingService.createSavingsAccount(customer);
@@ -101,21 +105,21 @@ public class AccountFlowHandler {
         return newAccount;
     }
 
-    private double getInitialDeposit(Customer customer, int accountType) {
-        double initialDeposit;
-        double minimumDeposit = getMinimumDeposit(customer, accountType);
+    private Money getInitialDeposit(Customer customer, int accountType) {
+        Money initialDeposit;
+        Money minimumDeposit = getMinimumDeposit(customer, accountType);
 
         do {
-            initialDeposit = this.input.readDouble("Enter initial deposit amount (minimum GHS " + minimumDeposit + ")", 0);
-            if (initialDeposit < minimumDeposit) {
+            initialDeposit = this.input.readMoney("Enter initial deposit amount (minimum GHS " + minimumDeposit + ")", Money.ZERO);
+            if (initialDeposit.isLessThan(minimumDeposit)) {
                 System.out.println("Initial deposit must be at least $ " + minimumDeposit);
             }
-        } while (initialDeposit < minimumDeposit);
+        } while (initialDeposit.isLessThan(minimumDeposit));
 
         return initialDeposit;
     }
 
-    private double getMinimumDeposit(Customer customer, int accountType) {
+    private Money getMinimumDeposit(Customer customer, int accountType) {
         if (customer.getCustomerType() == CustomerType.PREMIUM) {
             return AppConfig.MINIMUM_INITIAL_DEPOSIT_PREMIUM;
         }
@@ -132,14 +136,25 @@ public class AccountFlowHandler {
     public void handleAccountListingFlow() {
         System.out.println("ACCOUNT LISTING");
 
-        List<Account> allAccounts = this.bankingService.viewAllAccounts();
-        double totalBalance = this.bankingService.getTotalBankBalance();
+        int accountCount = this.bankingService.getStoredAccountCount();
+        Money totalBalance = this.bankingService.getTotalBankBalance();
+
+        List<Account> page = this.bankingService.viewAccounts(null, AppConfig.ACCOUNT_LISTING_PAGE_SIZE);
+        int shown = page.size();
+        DisplayUtil.displayAccountListing(page);
 
-        DisplayUtil.displayAccountListing(allAccounts);
+        while (shown < accountCount && page.size() == AppConfig.ACCOUNT_LISTING_PAGE_SIZE
+                && this.input.readYesOrNo("Show more accounts? (Y/N)")) {
+            String lastAccountNumber = page.get(page.size() - 1).getAccountNumber();
+            page = this.bankingService.viewAccounts(lastAccountNumber, AppConfig.ACCOUNT_LISTING_PAGE_SIZE);
+            if (page.isEmpty()) break;
+            shown += page.size();
+            DisplayUtil.displayAccountListing(page);
+        }
 
         System.out.println();
 
-        System.out.println("Total Accounts: " + allAccounts.size());
+        System.out.println("Total Accounts: " + accountCount);
         System.out.println("Total Bank Balance: " + DisplayUtil.displayAmount(totalBalance));
         System.out.println();
     }
@@ -2,13 +2,13 @@ package handlers;
 
 import interfaces.DataStorageService;
 import models.Account;
-import models.Transaction;
 import services.BankingService;
 import utils.DisplayUtil;
 import utils.InputReader;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class FileFlowHandler {
 
@@ -25,30 +25,42 @@ public class FileFlowHandler {
 
     public void handleSavingApplicationFlow() {
         DisplayUtil.displayNotice("Saving Application Data");
-        handleSavingAccounts();
-        handleSavingTransactions();
+        System.out.println("Saving accounts and transactions data...");
+        List<Account> accounts = bankingService.viewAllAccounts();
+
+        // Accounts and transactions are stored in separate files, so both are written at once
+        CompletableFuture<Boolean> accountsSaved = CompletableFuture.supplyAsync(() -> saveAccounts(accounts));
+        boolean transactionsSaved = saveTransactions();
+
+        if (accountsSaved.join()) {
+            System.out.println("Accounts saved successfully");
+        } else {
+            DisplayUtil.displayNotice("Could not save accounts. Try again later");
+        }
+        if (transactionsSaved) {
+            System.out.println("Transactions saved successfully");
+        } else {
+            DisplayUtil.displayNotice("Could not save transactions. Try again later.");
+        }
         System.out.println("File save completed successfully");
     }
 
-    private void handleSavingAccounts() {
-        System.out.println("Saving accounts data...");
-        List<Account> accounts = bankingService.viewAllAccounts();
+    private boolean saveAccounts(List<Account> accounts) {
         try {
             dataStorageService.saveAccounts(accounts);
-            System.out.println("Accounts saved successfully");
-        } catch (IOException e) {
-            DisplayUtil.displayNotice("Could not save accounts. Try again later");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
         }
     }
 
-    private void handleSavingTransactions() {
-        System.out.println("Saving transactions data...");
-        List<Transaction> transactions = bankingService.viewAllTransactions();
+    private boolean saveTransactions() {
         try {
-            dataStorageService.saveTransactions(transactions);
-            System.out.println("Transactions saved successfully");
-        } catch (IOException e) {
-            DisplayUtil.displayNotice("Could not save transactions. Try again later.");
+            // A journaled history is already written, so the full list is only built if the storage asks for it
+            dataStorageService.saveTransactions(bankingService::viewAllTransactions);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
         }
     }
 }
@@ -1,7 +1,11 @@
 package handlers;
 
+import config.AppConfig;
 import models.Account;
+import models.Money;
 import models.Transaction;
+import models.TransactionPage;
+import models.TransactionSummary;
 import models.exceptions.InsufficientFundsException;
 import models.exceptions.OverdraftExceededException;
 import services.BankingService;
@@ -11,6 +15,7 @@ import utils.DisplayUtil;
 import utils.InputReader;
 import utils.ValidationUtil;
 
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,7 +66,7 @@ public class TransactionFlowHandler {
 
         int transactionType = this.input.readInt("Select type (1-2)", 1, 2);
 
-        double transactionAmount = this.input.readDouble("Enter amount", 0);
+        Money transactionAmount = this.input.readMoney("Enter amount", Money.ZERO);
 
         System.out.println();
 
@@ -85,6 +90,8 @@ public class TransactionFlowHandler {
                 System.out.println("Transaction completed successful!");
             } catch (InsufficientFundsException | OverdraftExceededException e) {
                 System.out.println(e.getMessage());
+            } catch (UncheckedIOException e) {
+                DisplayUtil.displayNotice("Transaction could not be recorded: " + e.getMessage());
             }
         } else {
             System.out.println("Transaction not confirmed. Aborting.");
@@ -99,29 +106,31 @@ public class TransactionFlowHandler {
 
         DisplayUtil.displayAccountDetails(customerAccount);
 
-        List<Transaction> customerTransactions = this.bankingService.getTransactionsByAccount(
-                customerAccount.getAccountNumber());
+        String accountNumber = customerAccount.getAccountNumber();
+        TransactionPage page = this.bankingService.getRecentTransactions(
+                accountNumber, AppConfig.TRANSACTION_HISTORY_PAGE_SIZE);
 
-        if (customerTransactions.isEmpty()) {
+        if (page.transactions().isEmpty()) {
             DisplayUtil.displayNotice("No transactions recorded for this account.");
-        } else {
-            DisplayUtil.displayMultipleTransactions(customerTransactions);
-            displayTransactionTotals(customerTransactions);
+            return;
         }
-    }
-
-    private void displayTransactionTotals(List<Transaction> transactions) {
-        String accountNumber = transactions.getFirst().getAccountNumber();
 
-        double totalDeposits = this.bankingService.getTotalDeposit(accountNumber);
-        double totalWithdrawals = this.bankingService.getTotalWithdrawals(accountNumber);
+        DisplayUtil.displayMultipleTransactions(page.transactions());
+        while (page.hasOlder() && this.input.readYesOrNo("Show older transactions? (Y/N)")) {
+            page = this.bankingService.getOlderTransactions(
+                    accountNumber, page.nextCursor(), AppConfig.TRANSACTION_HISTORY_PAGE_SIZE);
+            DisplayUtil.displayMultipleTransactions(page.transactions());
+        }
+        displayTransactionTotals(accountNumber);
+    }
 
-        double netChange = totalDeposits - totalWithdrawals;
+    private void displayTransactionTotals(String accountNumber) {
+        TransactionSummary summary = this.bankingService.getTransactionSummary(accountNumber);
 
-        System.out.println("Total Transactions: " + transactions.size());
-        System.out.println("Total Deposits: " + DisplayUtil.displayAmount(totalDeposits));
-        System.out.println("Total Withdrawals: " + DisplayUtil.displayAmount(totalWithdrawals));
-        System.out.println("Net Change: " + DisplayUtil.displayAmount(netChange));
+        System.out.println("Total Transactions: " + summary.transactionCount());
+        System.out.println("Total Deposits: " + DisplayUtil.displayAmount(summary.totalDeposits()));
+        System.out.println("Total Withdrawals: " + DisplayUtil.displayAmount(summary.totalWithdrawals()));
+        System.out.println("Net Change: " + DisplayUtil.displayAmount(summary.netChange()));
     }
 
     public void handleConcurrentTransactionFlow() {
@@ -19,7 +19,7 @@ public interface AutoIdGenerator {
      *
      * @return The current ID counter.
      */
-    int getCounter();
+    long getCounter();
 
     /**
      * Extracts the internal index or numeric portion from a given ID string.
@@ -27,7 +27,7 @@ public interface AutoIdGenerator {
      * @param idNumber The ID string to extract the index from.
      * @return The numeric value inside the ID.
      */
-    int extractIndex(String idNumber);
+    long extractIndex(String idNumber);
 
     /**
      * Ensures the count of the number of ids that have been generated
@@ -35,5 +35,5 @@ public interface AutoIdGenerator {
      *
      * @param count of the of ids generated on startup
      */
-    void setIdCounter(int count);
+    void setIdCounter(long count);
 }
@@ -0,0 +1,78 @@
+package interfaces;
+
+/**
+ * Holds account balances outside the account objects, addressed by slot.
+ * All amounts are in cents and every operation is atomic per slot. The store
+ * also keeps the other fields that can change after an account is stored, the
+ * monthly fee and the unsaved-changes mark, since every object bound to a slot
+ * has to share them.
+ */
+public interface BalanceStore {
+
+    /**
+     * @param slot the account slot
+     * @return the current balance of the slot
+     */
+    long balanceOf(int slot);
+
+    /**
+     * Adds an amount to the balance of a slot.
+     *
+     * @param slot the account slot
+     * @param amountMinorUnits the amount to add, negative to subtract
+     */
+    void addToBalance(int slot, long amountMinorUnits);
+
+    /**
+     * Debits a slot unless the resulting balance would drop below the floor.
+     *
+     * @param slot the account slot
+     * @param amountMinorUnits the amount to debit
+     * @param floorMinorUnits the lowest balance allowed after the debit
+     * @return true if the debit was applied
+     */
+    boolean tryDebit(int slot, long amountMinorUnits, long floorMinorUnits);
+
+    /**
+     * Replaces the balance of a slot.
+     *
+     * @param slot the account slot
+     * @param balanceMinorUnits the new balance
+     */
+    void setBalance(int slot, long balanceMinorUnits);
+
+    /**
+     * @param slot the account slot
+     * @return the monthly fee of the slot
+     */
+    long monthlyFeeOf(int slot);
+
+    /**
+     * Replaces the monthly fee of a slot.
+     *
+     * @param slot the account slot
+     * @param monthlyFeeMinorUnits the new monthly fee
+     */
+    void setMonthlyFee(int slot, long monthlyFeeMinorUnits);
+
+    /**
+     * Marks a slot as changed since it was last saved.
+     *
+     * @param slot the account slot
+     */
+    void markDirty(int slot);
+
+    /**
+     * Clears the unsaved-changes mark of a slot.
+     *
+     * @param slot the account slot
+     * @return true if the slot was marked
+     */
+    boolean clearDirty(int slot);
+
+    /**
+     * @param slot the account slot
+     * @return true if the slot has changes that were not saved yet
+     */
+    boolean isDirty(int slot);
+}
@@ -6,6 +6,7 @@ import models.Transaction;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Represents a service responsible for persisting and retrieving account
@@ -30,6 +31,19 @@ public interface DataStorageService {
      */
     void saveAccounts(List<Account> accounts) throws IOException;
 
+    /**
+     * Saves the accounts that changed since they were last saved, such as one that was
+     * just created. Storage that keeps a slot per account only writes the changed ones
+     * and never asks for the full list.
+     *
+     * @param changed the changed accounts
+     * @param accounts supplies all current accounts, including the changed ones
+     * @throws IOException if there is an error writing to the storage.
+     */
+    default void saveChangedAccounts(List<Account> changed, Supplier<List<Account>> accounts) throws IOException {
+        saveAccounts(accounts.get());
+    }
+
     /**
      * Loads all transactions from the storage.
      *
@@ -45,4 +59,24 @@ public interface DataStorageService {
      * @throws IOException if there is an error writing to the storage.
      */
     void saveTransactions(List<Transaction> transactions) throws IOException;
+
+    /**
+     * Saves all current transactions, building the list only if the storage needs it.
+     * Storage that records transactions as they are confirmed only has to make them
+     * durable and never asks for the list.
+     *
+     * @param transactions supplies all current transactions
+     * @throws IOException if there is an error writing to the storage.
+     */
+    default void saveTransactions(Supplier<List<Transaction>> transactions) throws IOException {
+        saveTransactions(transactions.get());
+    }
+
+    /**
+     * Appends transactions to the end of the stored history without rewriting
+     * the transactions already stored.
+     *
+     * @throws IOException if there is an error writing to the storage.
+     */
+    void appendTransactions(List<Transaction> transactions) throws IOException;
 }
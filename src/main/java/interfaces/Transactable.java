@@ -1,5 +1,6 @@
 package interfaces;
 
+import models.Money;
 import models.enums.TransactionType;
 import models.exceptions.InsufficientFundsException;
 import models.exceptions.OverdraftExceededException;
@@ -18,6 +19,6 @@ public interface Transactable {
      * @throws OverdraftExceededException if the transaction exceeds allowed overdraft
      * @throws InsufficientFundsException if there are insufficient funds for withdrawal
      */
-    boolean processTransaction(double amount, TransactionType type) throws OverdraftExceededException,
+    boolean processTransaction(Money amount, TransactionType type) throws OverdraftExceededException,
             InsufficientFundsException;
 }
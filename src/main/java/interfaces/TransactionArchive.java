@@ -0,0 +1,34 @@
+package interfaces;
+
+import models.Transaction;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents stored transactions that were not loaded into memory at startup,
+ * such as history older than the load window. Queries reaching past what is in
+ * memory read the rest from here.
+ */
+public interface TransactionArchive {
+
+    /**
+     * Reads the archived transactions with a timestamp in [from, to).
+     *
+     * @param from the inclusive start of the window
+     * @param to the exclusive end of the window
+     * @return the matching transactions in the order they were stored
+     * @throws IOException if the archive cannot be read
+     */
+    List<Transaction> loadArchivedTransactionsBetween(Instant from, Instant to) throws IOException;
+
+    /**
+     * Reads the archived transactions of one account.
+     *
+     * @param accountNumber the account identifier
+     * @return the account's transactions in the order they were stored
+     * @throws IOException if the archive cannot be read
+     */
+    List<Transaction> loadArchivedAccountTransactions(String accountNumber) throws IOException;
+}
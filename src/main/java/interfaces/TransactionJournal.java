@@ -0,0 +1,40 @@
+package interfaces;
+
+import models.Transaction;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Represents an append-only log of confirmed transactions.
+ * Each transaction is written exactly once when it is confirmed, so
+ * persisting the transaction history never requires rewriting it.
+ */
+public interface TransactionJournal {
+
+    /**
+     * Appends a confirmed transaction to the end of the journal.
+     *
+     * @param transaction the transaction to record
+     * @throws IOException if the record could not be written
+     */
+    void append(Transaction transaction) throws IOException;
+
+    /**
+     * Appends several confirmed transactions in order. Implementations may write
+     * them in a single operation.
+     *
+     * @param transactions the transactions to record
+     * @throws IOException if the records could not be written
+     */
+    default void appendAll(List<Transaction> transactions) throws IOException {
+        for (Transaction transaction : transactions) append(transaction);
+    }
+
+    /**
+     * Forces every record appended so far to durable storage.
+     *
+     * @throws IOException if the journal could not be synced
+     */
+    void flush() throws IOException;
+}
@@ -1,5 +1,6 @@
 package models;
 
+import interfaces.BalanceStore;
 import interfaces.Transactable;
 import models.enums.AccountType;
 import models.enums.TransactionType;
@@ -7,16 +8,42 @@ import models.exceptions.InsufficientFundsException;
 import models.exceptions.InvalidAmountException;
 import models.exceptions.OverdraftExceededException;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
 public abstract class Account implements Transactable {
+    private static final VarHandle BALANCE;
+    private static final VarHandle DIRTY;
+
+    static {
+        try {
+            BALANCE = MethodHandles.lookup().findVarHandle(Account.class, "balanceMinorUnits", long.class);
+            DIRTY = MethodHandles.lookup().findVarHandle(Account.class, "dirty", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String accountNumber;
     private final Customer customer;
-    private double balance;
+    // Stored in cents and only updated through compare-and-set so concurrent
+    // deposits and withdrawals never lose an update or accumulate rounding error
+    private volatile long balanceMinorUnits;
     private final String status;
-
-    public Account(String accountNumber, Customer customer, double balance, String status) {
+    // Shared bank-wide total that receives every change to this balance
+    private volatile LongAdder balanceTotal;
+    // Set when the balance lives in an external table rather than in this object
+    private BalanceStore balanceStore;
+    private int balanceSlot;
+    // Set by every change made since the account was last saved, so saves can skip
+    // unchanged accounts. New accounts start out unsaved.
+    private volatile boolean dirty = true;
+
+    public Account(String accountNumber, Customer customer, Money balance, String status) {
         this.accountNumber = accountNumber;
         this.customer = customer;
-        this.balance = balance;
+        this.balanceMinorUnits = balance.minorUnits();
         this.status = status;
     }
 
@@ -26,12 +53,12 @@ public abstract class Account implements Transactable {
 
     public abstract AccountType getAccountType();
 
-    public abstract void withdraw(double amount) throws OverdraftExceededException, InsufficientFundsException;
+    public abstract void withdraw(Money amount) throws OverdraftExceededException, InsufficientFundsException;
 
     @Override
-    public boolean processTransaction(double amount, TransactionType type) throws OverdraftExceededException,
+    public boolean processTransaction(Money amount, TransactionType type) throws OverdraftExceededException,
             InsufficientFundsException {
-        if(amount <= 0) {
+        if(!amount.isPositive()) {
             throw new InvalidAmountException("Transaction amount has to be positive and greater 0");
         }
 
@@ -49,11 +76,119 @@ public abstract class Account implements Transactable {
         return true;
     }
 
-    public void deposit(double amount) {
-        if(amount <= 0) {
+    public void deposit(Money amount) {
+        if(!amount.isPositive()) {
             throw new InvalidAmountException("Deposit amount must be positive and greater than 0");
         }
-        this.balance += amount;
+        long amountMinorUnits = amount.minorUnits();
+        if (balanceStore != null) {
+            balanceStore.addToBalance(balanceSlot, amountMinorUnits);
+        } else {
+            BALANCE.getAndAdd(this, amountMinorUnits);
+            recordBalanceChange(amountMinorUnits);
+        }
+        markDirty();
+    }
+
+    /**
+     * Moves the balance of this account into a slot of an external store. All later
+     * balance reads and updates go to that slot, so every object bound to the same
+     * slot sees the same balance. Subclasses keep their other changeable fields in the
+     * same slot, see {@link #boundStore()}. The store keeps its own totals and unsaved-changes
+     * marks, so the mark of this object is not carried over.
+     *
+     * @param store the store holding the balance
+     * @param slot the slot of this account in the store
+     */
+    public void bindBalance(BalanceStore store, int slot) {
+        this.balanceStore = store;
+        this.balanceSlot = slot;
+    }
+
+    /**
+     * @return the store this account is bound to, or null while its fields live in this object
+     */
+    protected final BalanceStore boundStore() {
+        return balanceStore;
+    }
+
+    /**
+     * @return the slot of this account in its bound store
+     */
+    protected final int boundSlot() {
+        return balanceSlot;
+    }
+
+    /**
+     * Starts reporting every balance change of this account to a shared total,
+     * beginning with the current balance.
+     *
+     * @param total the running total, in cents, to keep up to date
+     */
+    public void trackBalanceIn(LongAdder total) {
+        this.balanceTotal = total;
+        total.add(this.balanceMinorUnits);
+    }
+
+    /**
+     * Marks the account as changed since it was last saved. Called after every change,
+     * so a save that cleared the mark before reading the account never misses one.
+     */
+    public void markDirty() {
+        if (balanceStore != null) {
+            balanceStore.markDirty(balanceSlot);
+        } else if (!this.dirty) {
+            // Only written when it changes so updates do not keep invalidating the flag
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Clears the unsaved-changes mark. Savers call this before reading the account, so a
+     * change made while the account is being written marks it again for the next save.
+     *
+     * @return true if the account had changes that were not saved yet
+     */
+    public boolean clearDirty() {
+        if (balanceStore != null) return balanceStore.clearDirty(balanceSlot);
+        return (boolean) DIRTY.getAndSet(this, false);
+    }
+
+    public boolean isDirty() {
+        if (balanceStore != null) return balanceStore.isDirty(balanceSlot);
+        return this.dirty;
+    }
+
+    private void recordBalanceChange(long deltaMinorUnits) {
+        LongAdder total = this.balanceTotal;
+        if (total != null) total.add(deltaMinorUnits);
+    }
+
+    /**
+     * Atomically debits the account unless the resulting balance
+     * would drop below the given floor.
+     *
+     * @param amountMinorUnits the amount to debit in cents
+     * @param floorMinorUnits the lowest balance allowed after the debit, in cents
+     * @return true if the debit was applied, false if it would breach the floor
+     */
+    protected final boolean tryDebit(long amountMinorUnits, long floorMinorUnits) {
+        if (balanceStore != null) {
+            if (!balanceStore.tryDebit(balanceSlot, amountMinorUnits, floorMinorUnits)) return false;
+            markDirty();
+            return true;
+        }
+
+        long current;
+        long updated;
+        do {
+            current = this.balanceMinorUnits;
+            updated = current - amountMinorUnits;
+            if (updated < floorMinorUnits) return false;
+        } while (!BALANCE.compareAndSet(this, current, updated));
+        recordBalanceChange(-amountMinorUnits);
+        markDirty();
+        return true;
     }
 
     public String getAccountNumber() {
@@ -64,16 +199,28 @@ public abstract class Account implements Transactable {
         return customer;
     }
 
-    public double getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofMinor(getBalanceMinorUnits());
+    }
+
+    public long getBalanceMinorUnits() {
+        if (balanceStore != null) return balanceStore.balanceOf(balanceSlot);
+        return this.balanceMinorUnits;
     }
 
     public String getStatus() {
         return status;
     }
 
-    public void setBalance(double balance) {
-        this.balance = balance;
+    public void setBalance(Money balance) {
+        long updated = balance.minorUnits();
+        if (balanceStore != null) {
+            balanceStore.setBalance(balanceSlot, updated);
+        } else {
+            long previous = (long) BALANCE.getAndSet(this, updated);
+            recordBalanceChange(updated - previous);
+        }
+        markDirty();
     }
 
     public abstract String toCsv();
@@ -1,18 +1,21 @@
 package models;
 
 import config.AppConfig;
+import interfaces.BalanceStore;
 import models.enums.AccountType;
 import models.exceptions.InvalidAmountException;
 import models.exceptions.OverdraftExceededException;
 import utils.DisplayUtil;
 
+import java.util.Objects;
+
 public class CheckingAccount extends Account {
-    private final double OVERDRAFT_LIMIT = AppConfig.OVERDRAFT_LIMIT_CHECKING_ACCOUNT;
-    private double monthlyFee;
+    private final Money OVERDRAFT_LIMIT = AppConfig.OVERDRAFT_LIMIT_CHECKING_ACCOUNT;
+    private Money monthlyFee;
 
-    public CheckingAccount(String accountNumber, Customer customer, double balance, String status) {
+    public CheckingAccount(String accountNumber, Customer customer, Money balance, String status) {
         super(accountNumber, customer, balance, status);
-        this.monthlyFee = 10;
+        this.monthlyFee = Money.of(10);
     }
 
     @Override
@@ -37,7 +40,7 @@ public class CheckingAccount extends Account {
     }
 
     private String getExtraRowDisplay(String columnFormat) {
-        String monthlyFee = DisplayUtil.displayAmount(this.monthlyFee);
+        String monthlyFee = DisplayUtil.displayAmount(getMonthlyFee());
         String overdraftLimit = DisplayUtil.displayAmount(this.OVERDRAFT_LIMIT);
 
         String overDraftDisplay = "Overdraft Limit: " + overdraftLimit;
@@ -69,19 +72,14 @@ public class CheckingAccount extends Account {
     }
 
     @Override
-    public void withdraw(double amount) throws OverdraftExceededException{
-        if(amount <= 0) {
+    public void withdraw(Money amount) throws OverdraftExceededException{
+        if(!amount.isPositive()) {
             throw new InvalidAmountException("Withdrawal amount must be positive");
         }
 
-        double currentAccountBalance = super.getBalance();
-        double newAccountBalance = currentAccountBalance - amount;
-
-        if(newAccountBalance < -this.OVERDRAFT_LIMIT) {
+        if(!tryDebit(amount.minorUnits(), -this.OVERDRAFT_LIMIT.minorUnits())) {
             throw new OverdraftExceededException("Withdrawal not allowed: overdraft limit is exceeded");
         }
-
-        super.setBalance(newAccountBalance);
     }
 
     @Override
@@ -90,29 +88,39 @@ public class CheckingAccount extends Account {
                 this.getAccountType().toString(),
                 super.getAccountNumber(),
                 super.getCustomer().toCsv(),
-                String.valueOf(super.getBalance()),
+                super.getBalance().toString(),
                 super.getStatus(),
-                String.valueOf(this.monthlyFee)
+                getMonthlyFee().toString(),
+                Objects.toString(super.getCustomer().getCustomerId(), "")
         );
     }
 
     public void applyMonthlyFee() throws OverdraftExceededException{
-        double newAccountBalance = super.getBalance() - this.monthlyFee;
-        if(newAccountBalance < -this.OVERDRAFT_LIMIT) {
+        if(!tryDebit(getMonthlyFee().minorUnits(), -this.OVERDRAFT_LIMIT.minorUnits())) {
             throw new OverdraftExceededException("Monthly fee cannot be applied: overdraft limit exceeded");
         }
-        super.setBalance(newAccountBalance);
     }
 
-    public double getOVERDRAFT_LIMIT() {
+    public Money getOVERDRAFT_LIMIT() {
         return this.OVERDRAFT_LIMIT;
     }
 
-    public double getMonthlyFee() {
-        return this.monthlyFee;
+    public Money getMonthlyFee() {
+        BalanceStore store = boundStore();
+        return store == null ? this.monthlyFee : Money.ofMinor(store.monthlyFeeOf(boundSlot()));
     }
 
-    public void setMonthlyFee(double fee) {
-        this.monthlyFee = fee;
+    /**
+     * Changes the monthly fee. For an account kept in a table the fee is written to its
+     * slot, so every other copy of the account sees it too.
+     */
+    public void setMonthlyFee(Money fee) {
+        BalanceStore store = boundStore();
+        if (store != null) {
+            store.setMonthlyFee(boundSlot(), fee.minorUnits());
+        } else {
+            this.monthlyFee = fee;
+        }
+        markDirty();
     }
 }
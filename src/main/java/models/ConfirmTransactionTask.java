@@ -28,6 +28,9 @@ public class ConfirmTransactionTask implements Runnable{
                     "Thread:" + Thread.currentThread().getName() + " " + transaction.getTransactionType() + " " + DisplayUtil.displayAmount(transaction.getAmount()) + " to " + transaction.getAccountNumber());
         } catch (InsufficientFundsException | OverdraftExceededException | AccountNotFoundException e) {
             errorCollector.addError(e.getMessage());
+        } catch (RuntimeException e) {
+            // Such as a journal that can no longer be written, the balance was left unchanged
+            errorCollector.addError(transaction.getTransactionId() + " failed: " + e.getMessage());
         }
     }
 }
@@ -2,40 +2,37 @@ package models;
 
 import models.enums.CustomerType;
 
+/**
+ * The owner of one or more accounts.
+ * <p>
+ *  Customers are immutable. A customer gets its ID when it is registered with the
+ *  customer registry, which also makes every account of the same person share one
+ *  customer object. Until then the ID is null.
+ * </p>
+ */
 public abstract class Customer {
     private final String customerId;
     private final String name;
     private final int age;
     private final String contact;
     private final String address;
-    private static int customerCounter = 0;
 
     public Customer(String name, int age, String contact, String address) {
+        this(null, name, age, contact, address);
+    }
+
+    public Customer(String customerId, String name, int age, String contact, String address) {
+        this.customerId = customerId;
         this.name = name;
         this.contact = contact;
         this.address = address;
         this.age = age;
-        
-        Customer.increaseCustomerCount();
-        this.customerId = generateCustomerId();
     }
 
     public abstract String displayCustomerDetails();
 
     public abstract CustomerType getCustomerType();
 
-    public static int getCustomerCounter() {
-        return customerCounter;
-    }
-
-    private static void increaseCustomerCount() {
-        Customer.customerCounter += 1;
-    }
-
-    private String generateCustomerId() {
-        return "CUS" + customerCounter;
-    }
-
     public String getCustomerId() {
         return customerId;
     }
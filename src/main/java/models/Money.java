@@ -0,0 +1,148 @@
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of money, stored as a whole number of minor units (cents).
+ * <p>
+ *  Arithmetic on minor units is exact, so balances never pick up floating-point
+ *  rounding errors and comparisons against limits behave as expected. Amounts
+ *  are written as plain decimals with two fraction digits, e.g. 1250.05.
+ * </p>
+ *
+ * @param minorUnits the amount in cents
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+    private static final int MINOR_UNITS_PER_MAJOR = 100;
+    private static final int FRACTION_DIGITS = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_UNITS_PER_MAJOR));
+    }
+
+    /**
+     * Parses a decimal amount such as "10", "10.5" or "-10.25" without going through
+     * a double. Amounts written by older versions, such as "1.0E7", are also accepted
+     * and rounded to the nearest cent.
+     *
+     * @param text the amount in major units
+     * @return the parsed amount
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Money parse(CharSequence text) {
+        return ofMinor(parseMinorUnits(text, 0, text.length()));
+    }
+
+    /**
+     * Parses an amount the same way as {@link #parse(CharSequence)}, reading it from
+     * part of a larger text, such as a csv column, without copying it out first.
+     *
+     * @param text the text holding the amount in major units
+     * @param start index of the first character of the amount
+     * @param end index after the last character of the amount
+     * @return the parsed amount in cents
+     * @throws NumberFormatException if the range is not a number
+     */
+    public static long parseMinorUnits(CharSequence text, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+
+        long major = 0;
+        int majorDigits = 0;
+        while (position < end && Character.isDigit(text.charAt(position))) {
+            if (majorDigits == 16) return parseSlow(text, start, end);
+            major = major * 10 + (text.charAt(position++) - '0');
+            majorDigits++;
+        }
+
+        long minor = 0;
+        int fractionDigits = 0;
+        if (position < end && text.charAt(position) == '.') {
+            position++;
+            while (position < end && Character.isDigit(text.charAt(position))) {
+                if (fractionDigits == FRACTION_DIGITS) return parseSlow(text, start, end);
+                minor = minor * 10 + (text.charAt(position++) - '0');
+                fractionDigits++;
+            }
+        }
+
+        if (position != end || majorDigits + fractionDigits == 0) return parseSlow(text, start, end);
+        for (; fractionDigits < FRACTION_DIGITS; fractionDigits++) minor *= 10;
+
+        long total = major * MINOR_UNITS_PER_MAJOR + minor;
+        return negative ? -total : total;
+    }
+
+    private static long parseSlow(CharSequence text, int start, int end) {
+        String amount = text.subSequence(start, end).toString();
+        try {
+            return new BigDecimal(amount)
+                    .setScale(FRACTION_DIGITS, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount);
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    /**
+     * Multiplies by a rate such as an interest rate, rounding half up to the nearest cent.
+     */
+    public Money times(double rate) {
+        return ofMinor(Math.round(minorUnits * rate));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * @return the amount as a plain decimal with two fraction digits, e.g. -12.05
+     */
+    @Override
+    public String toString() {
+        long major = Math.abs(minorUnits / MINOR_UNITS_PER_MAJOR);
+        long minor = Math.abs(minorUnits % MINOR_UNITS_PER_MAJOR);
+        return (minorUnits < 0 ? "-" : "") + major + (minor < 10 ? ".0" : ".") + minor;
+    }
+}
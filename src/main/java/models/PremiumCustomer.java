@@ -8,6 +8,10 @@ public class PremiumCustomer extends Customer {
         super(name, age, contact, address);
     }
 
+    public PremiumCustomer(String customerId, String name, int age, String contact, String address) {
+        super(customerId, name, age, contact, address);
+    }
+
     @Override
     public String displayCustomerDetails() {
         return String.format("%s (%s)", this.getName(), this.getCustomerType());
@@ -6,11 +6,13 @@ import models.exceptions.InsufficientFundsException;
 import models.exceptions.InvalidAmountException;
 import utils.DisplayUtil;
 
+import java.util.Objects;
+
 public class SavingsAccount extends Account {
     private final double INTEREST_RATE = AppConfig.INTEREST_RATE_SAVINGS_ACCOUNT;
-    private final double MINIMUM_BALANCE = AppConfig.MINIMUM_INITIAL_DEPOSIT_SAVINGS;
+    private final Money MINIMUM_BALANCE = AppConfig.MINIMUM_INITIAL_DEPOSIT_SAVINGS;
 
-    public SavingsAccount(String accountNumber, Customer customer, double balance, String status) {
+    public SavingsAccount(String accountNumber, Customer customer, Money balance, String status) {
         super(accountNumber, customer, balance, status);
     }
 
@@ -62,37 +64,33 @@ public class SavingsAccount extends Account {
     }
 
     @Override
-    public void withdraw(double amount) throws InsufficientFundsException{
+    public void withdraw(Money amount) throws InsufficientFundsException{
 
-        if(amount <= 0) {
+        if(!amount.isPositive()) {
             throw new InvalidAmountException("Withdrawal amount must be positive");
         }
 
-        double currentAccountBalance = super.getBalance();
-
-        double newAccountBalance = currentAccountBalance - amount;
-        if (newAccountBalance < MINIMUM_BALANCE) {
+        if (!tryDebit(amount.minorUnits(), MINIMUM_BALANCE.minorUnits())) {
             throw new InsufficientFundsException("Withdrawal not allowed: Insufficient balance");
         }
-
-        super.setBalance(newAccountBalance);
     }
 
     @Override
     public String toCsv() {
-        final int MONTHLY_FEE = 0;
+        final Money MONTHLY_FEE = Money.ZERO;
         return String.join(",",
                 this.getAccountType().toString(),
                 super.getAccountNumber(),
                 super.getCustomer().toCsv(),
-                String.valueOf(super.getBalance()),
+                super.getBalance().toString(),
                 super.getStatus(),
-                String.valueOf(MONTHLY_FEE)
+                MONTHLY_FEE.toString(),
+                Objects.toString(super.getCustomer().getCustomerId(), "")
         );
     }
 
-    public double calculateInterest() {
-        return super.getBalance() * this.INTEREST_RATE;
+    public Money calculateInterest() {
+        return super.getBalance().times(this.INTEREST_RATE);
     }
 
     public AccountType getAccountType() {
@@ -103,7 +101,7 @@ public class SavingsAccount extends Account {
         return this.INTEREST_RATE;
     }
 
-    public double getMINIMUM_BALANCE() {
+    public Money getMINIMUM_BALANCE() {
         return this.MINIMUM_BALANCE;
     }
 }
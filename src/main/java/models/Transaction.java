@@ -2,29 +2,130 @@ package models;
 
 import models.enums.TransactionType;
 
+import java.time.Instant;
+
+/**
+ * A recorded change to an account balance.
+ * <p>
+ *  Transactions are retained for the lifetime of the application, so they are stored
+ *  compactly: the ID and the account number as their numbers, amounts in cents, the
+ *  timestamp as microseconds since the epoch and the type as its ordinal. No strings
+ *  are kept per transaction, so the footprint does not depend on how many accounts
+ *  there are. The text forms are rebuilt on demand.
+ * </p>
+ */
 public class Transaction {
-    private final String transactionId;
-    private final TransactionType transactionType;
-    private final String accountNumber;
-    private final double amount;
-    private final double balanceAfter;
-    private final String timestamp;
+    public static final String ID_PREFIX = "TXN";
+    public static final String ACCOUNT_PREFIX = "ACC";
+    private static final int MICROS_PER_SECOND = 1_000_000;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final long transactionNumber;
+    private final long amountMinorUnits;
+    private final long balanceAfterMinorUnits;
+    private final long epochMicros;
+    private final long accountIndex;
+    private final byte transactionType;
+    // Digits the ID and the account number were written with, so IDs such as TXN1
+    // and TXN001 read back unchanged
+    private final byte idDigits;
+    private final byte accountDigits;
 
     public Transaction(
             String transactionId,
             TransactionType transactionType,
             String accountNumber,
-            double amount,
-            double balanceAfter,
+            Money amount,
+            Money balanceAfter,
             String timestamp
     )
     {
-        this.transactionId = transactionId;
-        this.transactionType = transactionType;
-        this.accountNumber = accountNumber;
-        this.amount = amount;
-        this.balanceAfter = balanceAfter;
-        this.timestamp = timestamp;
+        this(transactionId, transactionType, accountNumber, amount, balanceAfter,
+                toEpochMicros(Instant.parse(timestamp)));
+    }
+
+    public Transaction(
+            String transactionId,
+            TransactionType transactionType,
+            String accountNumber,
+            Money amount,
+            Money balanceAfter,
+            long epochMicros
+    )
+    {
+        this(parseNumber(ID_PREFIX, transactionId, "Transaction ID"), transactionId.length() - ID_PREFIX.length(),
+                transactionType,
+                parseNumber(ACCOUNT_PREFIX, accountNumber, "Account number"),
+                accountNumber.length() - ACCOUNT_PREFIX.length(),
+                amount.minorUnits(), balanceAfter.minorUnits(), epochMicros);
+    }
+
+    /**
+     * Creates a transaction from fields that were already parsed, such as by the csv loaders.
+     *
+     * @param transactionNumber the numeric part of the transaction ID
+     * @param idDigits how many digits the ID is written with, including leading zeros
+     * @param accountIndex the numeric part of the account number
+     * @param accountDigits how many digits the account number is written with, including leading zeros
+     */
+    public Transaction(
+            long transactionNumber,
+            int idDigits,
+            TransactionType transactionType,
+            long accountIndex,
+            int accountDigits,
+            long amountMinorUnits,
+            long balanceAfterMinorUnits,
+            long epochMicros
+    )
+    {
+        if (transactionNumber < 0 || idDigits <= 0 || idDigits > 19) {
+            throw new IllegalArgumentException("Transaction ID format is invalid: " + ID_PREFIX + transactionNumber);
+        }
+        if (accountIndex < 0 || accountDigits <= 0 || accountDigits > 19) {
+            throw new IllegalArgumentException("Account number format is invalid: " + ACCOUNT_PREFIX + accountIndex);
+        }
+
+        this.transactionNumber = transactionNumber;
+        this.idDigits = (byte) idDigits;
+        this.transactionType = (byte) transactionType.ordinal();
+        this.accountIndex = accountIndex;
+        this.accountDigits = (byte) accountDigits;
+        this.amountMinorUnits = amountMinorUnits;
+        this.balanceAfterMinorUnits = balanceAfterMinorUnits;
+        this.epochMicros = epochMicros;
+    }
+
+    /**
+     * Returns a copy of this transaction with a different balance after it, such as the
+     * balance read when the transaction was applied rather than when it was created.
+     */
+    public Transaction withBalanceAfter(Money balanceAfter) {
+        return new Transaction(this.transactionNumber, this.idDigits, getTransactionType(),
+                this.accountIndex, this.accountDigits, this.amountMinorUnits, balanceAfter.minorUnits(), this.epochMicros);
+    }
+
+    private static long parseNumber(String prefix, String value, String name) {
+        int digits = value.length() - prefix.length();
+        if (!value.startsWith(prefix) || digits <= 0 || digits > 19
+                || !Character.isDigit(value.charAt(prefix.length()))) {
+            throw new IllegalArgumentException(name + " format is invalid: " + value);
+        }
+        return Long.parseLong(value, prefix.length(), value.length(), 10);
+    }
+
+    private static String format(String prefix, long number, int digits) {
+        String text = Long.toString(number);
+        return prefix + "0".repeat(Math.max(0, digits - text.length())) + text;
+    }
+
+    /**
+     * Converts an instant to whole microseconds since the epoch, the precision transactions keep.
+     */
+    public static long toEpochMicros(Instant instant) {
+        return Math.addExact(
+                Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND),
+                instant.getNano() / 1_000);
     }
 
     public String displayTransactionDetails() {
@@ -32,37 +133,55 @@ public class Transaction {
     }
 
     public String getTransactionId() {
-        return this.transactionId;
+        return format(ID_PREFIX, this.transactionNumber, this.idDigits);
+    }
+
+    public long getTransactionNumber() {
+        return this.transactionNumber;
     }
 
     public TransactionType getTransactionType() {
-        return this.transactionType;
+        return TYPES[this.transactionType];
     }
 
     public String getAccountNumber() {
-        return this.accountNumber;
+        return format(ACCOUNT_PREFIX, this.accountIndex, this.accountDigits);
+    }
+
+    public Money getAmount() {
+        return Money.ofMinor(this.amountMinorUnits);
+    }
+
+    public long getAmountMinorUnits() {
+        return this.amountMinorUnits;
+    }
+
+    public Money getBalanceAfter() {
+        return Money.ofMinor(this.balanceAfterMinorUnits);
     }
 
-    public double getAmount() {
-        return this.amount;
+    public long getEpochMicros() {
+        return this.epochMicros;
     }
 
-    public double getBalanceAfter() {
-        return this.balanceAfter;
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(
+                Math.floorDiv(this.epochMicros, MICROS_PER_SECOND),
+                Math.floorMod(this.epochMicros, MICROS_PER_SECOND) * 1_000L);
     }
 
     public String getTimestamp() {
-        return this.timestamp;
+        return getInstant().toString();
     }
 
     public String toCsv() {
         return String.join(",",
-                this.transactionId,
-                this.transactionType.toString(),
-                this.accountNumber,
-                String.valueOf(this.amount),
-                String.valueOf(this.balanceAfter),
-                this.timestamp
+                getTransactionId(),
+                getTransactionType().toString(),
+                getAccountNumber(),
+                getAmount().toString(),
+                getBalanceAfter().toString(),
+                getTimestamp()
         );
     }
 }
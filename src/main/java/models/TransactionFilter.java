@@ -0,0 +1,34 @@
+package models;
+
+import models.enums.TransactionType;
+
+import java.time.Instant;
+
+/**
+ * Selects transactions for bank-wide scans. A null field matches everything.
+ *
+ * @param type only transactions of this type
+ * @param accountNumber only transactions of this account
+ * @param from only transactions at or after this instant
+ * @param to only transactions before this instant
+ */
+public record TransactionFilter(TransactionType type, String accountNumber, Instant from, Instant to) {
+
+    public static final TransactionFilter ALL = new TransactionFilter(null, null, null, null);
+
+    public static TransactionFilter ofType(TransactionType type) {
+        return new TransactionFilter(type, null, null, null);
+    }
+
+    public static TransactionFilter between(Instant from, Instant to) {
+        return new TransactionFilter(null, null, from, to);
+    }
+
+    public TransactionFilter withType(TransactionType type) {
+        return new TransactionFilter(type, accountNumber, from, to);
+    }
+
+    public TransactionFilter withAccount(String accountNumber) {
+        return new TransactionFilter(type, accountNumber, from, to);
+    }
+}
@@ -0,0 +1,18 @@
+package models;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ *
+ * @param transactions the transactions on this page, newest first
+ * @param nextCursor cursor to pass back for the next older page, 0 when there are no older transactions
+ */
+public record TransactionPage(List<Transaction> transactions, int nextCursor) {
+
+    public static final TransactionPage EMPTY = new TransactionPage(List.of(), 0);
+
+    public boolean hasOlder() {
+        return nextCursor > 0;
+    }
+}
@@ -0,0 +1,17 @@
+package models;
+
+/**
+ * Running totals of an account's recorded transactions.
+ *
+ * @param transactionCount number of recorded transactions
+ * @param totalDeposits sum of all credits, deposits and incoming transfers
+ * @param totalWithdrawals sum of all debits, withdrawals and outgoing transfers
+ */
+public record TransactionSummary(int transactionCount, Money totalDeposits, Money totalWithdrawals) {
+
+    public static final TransactionSummary EMPTY = new TransactionSummary(0, Money.ZERO, Money.ZERO);
+
+    public Money netChange() {
+        return totalDeposits.minus(totalWithdrawals);
+    }
+}
@@ -1,13 +1,31 @@
 package models.enums;
 
 public enum TransactionType {
-    WITHDRAWAL("Withdrawal"),
-    DEPOSIT("Deposit");
+    WITHDRAWAL("Withdrawal", false),
+    DEPOSIT("Deposit", true),
+    TRANSFER_OUT("Transfer Out", false),
+    TRANSFER_IN("Transfer In", true);
 
     private final String displayName;
+    private final boolean credit;
 
-    TransactionType(String displayName) {
+    TransactionType(String displayName, boolean credit) {
         this.displayName = displayName;
+        this.credit = credit;
+    }
+
+    /**
+     * Parses either the constant name or the display name of a transaction type.
+     */
+    public static TransactionType fromString(String value) {
+        return TransactionType.valueOf(value.trim().toUpperCase().replace(' ', '_'));
+    }
+
+    /**
+     * @return true if this type adds money to the account
+     */
+    public boolean isCredit() {
+        return this.credit;
     }
 
     @Override
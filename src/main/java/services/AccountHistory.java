@@ -0,0 +1,111 @@
+package services;
+
+import models.Money;
+import models.Transaction;
+import models.TransactionPage;
+import models.TransactionSummary;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The recorded transactions of a single account together with running totals
+ * that are updated on every append, so summaries never rescan the history.
+ * Transactions are kept in the order they were recorded, oldest first, so the
+ * position of a transaction never changes and can serve as a paging cursor.
+ * All access is synchronized on the history itself, which keeps appends to
+ * different accounts independent of each other.
+ */
+class AccountHistory {
+    private final List<Transaction> transactions = new ArrayList<>();
+    private long depositsMinorUnits;
+    private long withdrawalsMinorUnits;
+    // Set once the transactions kept only in the archive have been put in front of the history
+    private boolean archiveMerged;
+
+    AccountHistory() {
+    }
+
+    AccountHistory(List<Transaction> loaded) {
+        // Saved histories are written in recording order, so they load already in time order
+        loaded.forEach(this::add);
+    }
+
+    synchronized void add(Transaction transaction) {
+        transactions.add(transaction);
+        addToTotals(transaction);
+    }
+
+    private void addToTotals(Transaction transaction) {
+        long amount = transaction.getAmountMinorUnits();
+        if (transaction.getTransactionType().isCredit()) {
+            depositsMinorUnits += amount;
+        } else {
+            withdrawalsMinorUnits += amount;
+        }
+    }
+
+    /**
+     * Puts the account's transactions that were not loaded at startup in front of the
+     * history and adds them to the totals. Only the first call reads the archive, and it
+     * has to happen before any position is handed out as a paging cursor.
+     *
+     * @param archived reads the archived transactions, oldest first
+     * @param onMerged receives each transaction that was merged, before any other reader sees the history
+     */
+    synchronized void mergeArchived(Supplier<List<Transaction>> archived, Consumer<Transaction> onMerged) {
+        if (archiveMerged) return;
+
+        Set<Long> recorded = new HashSet<>();
+        transactions.forEach(transaction -> recorded.add(transaction.getTransactionNumber()));
+        List<Transaction> older = new ArrayList<>();
+        for (Transaction transaction : archived.get()) {
+            // Segments outside the load window may repeat transactions that are also in memory
+            if (recorded.add(transaction.getTransactionNumber())) older.add(transaction);
+        }
+        transactions.addAll(0, older);
+        older.forEach(this::addToTotals);
+        older.forEach(onMerged);
+        archiveMerged = true;
+    }
+
+    synchronized List<Transaction> snapshot() {
+        return new ArrayList<>(transactions);
+    }
+
+    synchronized List<Transaction> newestFirst() {
+        List<Transaction> copy = new ArrayList<>(transactions.size());
+        for (int i = transactions.size() - 1; i >= 0; i--) copy.add(transactions.get(i));
+        return copy;
+    }
+
+    /**
+     * Copies up to limit transactions recorded before the cursor position, newest first.
+     *
+     * @param cursor position to page back from, anything past the end starts at the newest transaction
+     * @param limit the maximum page size
+     */
+    synchronized TransactionPage pageBefore(int cursor, int limit) {
+        int end = Math.min(cursor, transactions.size());
+        int start = Math.max(0, end - limit);
+
+        List<Transaction> page = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--) page.add(transactions.get(i));
+        return new TransactionPage(page, start);
+    }
+
+    synchronized int size() {
+        return transactions.size();
+    }
+
+    synchronized TransactionSummary summary() {
+        return new TransactionSummary(
+                transactions.size(),
+                Money.ofMinor(depositsMinorUnits),
+                Money.ofMinor(withdrawalsMinorUnits));
+    }
+}
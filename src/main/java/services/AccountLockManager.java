@@ -0,0 +1,93 @@
+package services;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out locks for accounts by hashing account numbers onto a fixed set of lock stripes.
+ * <p>
+ *  Transactions on accounts that map to different stripes never contend with each other,
+ *  while the number of lock objects stays constant no matter how many accounts exist.
+ * </p>
+ */
+public class AccountLockManager {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripeCount the minimum number of stripes, rounded up to a power of two
+     */
+    public AccountLockManager(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        if (stripeCount == 1) size = 1;
+
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given account.
+     *
+     * @param accountNumber the account to lock
+     * @return the stripe lock for that account
+     */
+    public Lock lockFor(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+
+    /**
+     * Returns the locks guarding two accounts in a single global order.
+     * Callers that lock them in the returned order can never deadlock with
+     * each other, whichever account they treat as first.
+     *
+     * @param first one of the accounts to lock
+     * @param second the other account to lock
+     * @return one lock if both accounts share a stripe, otherwise two locks in stripe order
+     */
+    public List<Lock> orderedLocksFor(String first, String second) {
+        int firstIndex = stripeIndex(first);
+        int secondIndex = stripeIndex(second);
+
+        if (firstIndex == secondIndex) return List.of(stripes[firstIndex]);
+        return List.of(stripes[Math.min(firstIndex, secondIndex)], stripes[Math.max(firstIndex, secondIndex)]);
+    }
+
+    /**
+     * Takes every stripe lock in stripe order, which blocks all account updates until
+     * {@link #unlockAll()} is called. Taking them in the same order as
+     * {@link #orderedLocksFor} cannot deadlock with a transfer.
+     */
+    public void lockAll() {
+        for (ReentrantLock stripe : stripes) stripe.lock();
+    }
+
+    public void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    int stripeIndex(String accountNumber) {
+        return spread(accountNumber) & mask;
+    }
+
+    /**
+     * Hashes an account number for stripe selection. Anything else that partitions work
+     * by account should use the same function so its partitions line up with the stripes.
+     */
+    static int spread(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        // Spread the higher bits since account numbers differ mostly in their last characters
+        return hash ^ (hash >>> 16);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+}
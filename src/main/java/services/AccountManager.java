@@ -4,64 +4,95 @@ import interfaces.AutoIdGenerator;
 import models.Account;
 import models.CheckingAccount;
 import models.Customer;
+import models.Money;
 import models.SavingsAccount;
+import services.enums.AccountStorageMode;
 import services.exceptions.AccountNotFoundException;
 import services.exceptions.InvalidAccountNumberException;
 import utils.DisplayUtil;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Manages account creation, storage, and lookup operations.
- * Coordinates ID generation and maintains an in-memory list of accounts.
+ * Coordinates ID generation and maintains an in-memory index of accounts
+ * kept sorted by account number.
  *
  * <p>This class represents core business logic and is the main entry point
  * for creating and retrieving accounts during application runtime.</p>
  */
 public class AccountManager {
     private final AutoIdGenerator idGenerator;
-    private final Map<String, Account> accounts;
+    private final CustomerRegistry customers;
+    private final AccountTable accounts;
 
     public AccountManager(AutoIdGenerator idGenerator, Map<String, Account> accounts) {
+        this(idGenerator, accounts, AccountStorageMode.HEAP);
+    }
+
+    public AccountManager(AutoIdGenerator idGenerator, Map<String, Account> accounts, AccountStorageMode storageMode) {
+        this(idGenerator, accounts, storageMode, new CustomerRegistry());
+    }
+
+    /**
+     * @param idGenerator generates numbers for new accounts
+     * @param accounts the accounts loaded at startup
+     * @param storageMode where account data is kept
+     * @param customers the registry the loaded customers were registered with
+     */
+    public AccountManager(
+            AutoIdGenerator idGenerator,
+            Map<String, Account> accounts,
+            AccountStorageMode storageMode,
+            CustomerRegistry customers
+    ) {
         this.idGenerator = idGenerator;
-        this.accounts = accounts;
+        this.customers = customers;
+        this.accounts = switch (storageMode) {
+            case HEAP -> new HeapAccountTable();
+            case OFF_HEAP -> new OffHeapAccountTable(customers);
+        };
+        accounts.values().forEach(this.accounts::insert);
 
-        updateIdGenerator();
+        updateIdGenerator(accounts);
     }
 
-    private void updateIdGenerator() {
+    private void updateIdGenerator(Map<String, Account> accounts) {
         if(accounts.isEmpty()) return;
 
-        int maxCount = accounts.keySet().stream()
-                .map(idGenerator::extractIndex)
-                .max(Integer::compareTo)
+        long maxCount = accounts.keySet().stream()
+                .mapToLong(idGenerator::extractIndex)
+                .max()
                 .orElse(0);
 
         idGenerator.setIdCounter(maxCount);
     }
 
     /**
-     * Creates a new savings account but does not store it.
+     * Creates a new savings account but does not store it. The customer is
+     * registered, so a person opening several accounts keeps one customer ID.
      *
      * @param customer the account owner
      * @param balance initial account balance
      * @return the newly created SavingsAccount
      */
-    public SavingsAccount createSavingsAccount(Customer customer, double balance) {
+    public SavingsAccount createSavingsAccount(Customer customer, Money balance) {
         String accountNumber = idGenerator.generateId();
-        return new SavingsAccount(accountNumber, customer, balance, "active");
+        return new SavingsAccount(accountNumber, customers.register(customer), balance, "active");
     }
 
     /**
-     * Create a new checking account but does not store it.
+     * Create a new checking account but does not store it. The customer is
+     * registered, so a person opening several accounts keeps one customer ID.
      *
      * @param customer the account owner
      * @param balance initial account balance
      * @return the newly create CheckingAccount
      */
-    public CheckingAccount createCheckingAccount(Customer customer, double balance) {
+    public CheckingAccount createCheckingAccount(Customer customer, Money balance) {
         String accountNumber = idGenerator.generateId();
-        return new CheckingAccount(accountNumber, customer, balance, "active");
+        return new CheckingAccount(accountNumber, customers.register(customer), balance, "active");
     }
 
     /**
@@ -70,10 +101,9 @@ public class AccountManager {
      * @param account the account to add
      */
     public void addAccount(Account account) {
-        if(accounts.containsKey(account.getAccountNumber())) {
+        if(!accounts.insert(account)) {
             throw new InvalidAccountNumberException("This account Id already exists");
         }
-        accounts.put(account.getAccountNumber(), account);
     }
 
     /**
@@ -84,7 +114,7 @@ public class AccountManager {
      * @throws AccountNotFoundException if the account does not exist
      */
     public Account findAccount(String accountNumber) throws AccountNotFoundException {
-        Account account = accounts.get(accountNumber);
+        Account account = accounts.find(accountNumber);
         if(account == null) {
             throw new AccountNotFoundException("Cannot find account: Account doesn't exist");
         }
@@ -98,24 +128,70 @@ public class AccountManager {
      * @return sorted list of accounts
      */
     public List<Account> getAllAccounts() {
-        return accounts.values().stream()
-                .sorted(Comparator.comparing(Account::getAccountNumber))
-                .toList();
+        return accounts.all();
+    }
+
+    /**
+     * Returns one page of accounts in ascending account number order,
+     * starting right after the given account number. Only the returned
+     * page is copied, so listing stays cheap however many accounts exist.
+     *
+     * @param afterAccountNumber the last account number of the previous page, or null for the first page
+     * @param limit the maximum number of accounts to return
+     * @return up to limit accounts following afterAccountNumber
+     */
+    public List<Account> getAccounts(String afterAccountNumber, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return accounts.page(afterAccountNumber, limit);
+    }
+
+    /**
+     * @return the accounts with changes that were not saved yet
+     */
+    public List<Account> getChangedAccounts() {
+        return accounts.changed();
+    }
+
+    /**
+     * Marks an account as changed since it was last saved, if it exists.
+     *
+     * @param accountNumber the account number
+     */
+    public void markChanged(String accountNumber) {
+        Account account = accounts.find(accountNumber);
+        if (account != null) account.markDirty();
+    }
+
+    /**
+     * Copies an account into a new object that is not bound to any table, so
+     * later changes to the account do not show up in the copy.
+     */
+    static Account detachedCopy(Account account) {
+        Money monthlyFee = account instanceof CheckingAccount checking ? checking.getMonthlyFee() : Money.ZERO;
+        return FileStorageService.createAccount(account.getAccountType(), account.getAccountNumber(),
+                account.getCustomer(), account.getBalance(), account.getStatus(), monthlyFee);
+    }
+
+    /**
+     * @return the number of accounts currently stored
+     */
+    public int getStoredAccountCount() {
+        return accounts.size();
     }
 
     /**
-     * Calculates the total balance across all Accounts.
+     * Returns the total balance across all Accounts. The total is maintained
+     * incrementally as balances change, so this does not scan the accounts.
      *
      * @return the sum of balances of all store accounts
      */
-    public double getTotalBalance() {
-        return accounts.values()
-                .stream()
-                .mapToDouble(Account::getBalance)
-                .sum();
+    public Money getTotalBalance() {
+        return Money.ofMinor(accounts.totalBalanceMinorUnits());
     }
 
-    public int getAccountCount() {
+    public long getAccountCount() {
         return this.idGenerator.getCounter();
     }
 }
@@ -0,0 +1,175 @@
+package services;
+
+import config.AppConfig;
+import models.Account;
+import models.CheckingAccount;
+import models.Customer;
+import models.Money;
+import models.enums.AccountType;
+import models.enums.CustomerType;
+import utils.id.CustomerIdGenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fixed-width binary layout of one account, shared by the account snapshot file
+ * and the off-heap account table.
+ * <p>
+ *  Numbers are big-endian and strings are a length byte followed by UTF-8 bytes,
+ *  padded to the width of their field.
+ * </p>
+ */
+final class AccountRecord {
+    static final int BYTES = 256;
+
+    // Offsets relative to the start of a record
+    static final int ACCOUNT_TYPE = 0;
+    static final int CUSTOMER_TYPE = 1;
+    static final int CUSTOMER_AGE = 4;
+    static final int BALANCE = 8;
+    static final int MONTHLY_FEE = 16;
+    static final int ACCOUNT_NUMBER = 24;
+    static final int STATUS = 48;
+    static final int CONTACT = 64;
+    static final int NAME = 88;
+    static final int ADDRESS = 152;
+    static final int CUSTOMER_NUMBER = 248;
+
+    private static final int ACCOUNT_NUMBER_BYTES = STATUS - ACCOUNT_NUMBER;
+    private static final int STATUS_BYTES = CONTACT - STATUS;
+    private static final int CONTACT_BYTES = NAME - CONTACT;
+    private static final int NAME_BYTES = ADDRESS - NAME;
+    private static final int ADDRESS_BYTES = CUSTOMER_NUMBER - ADDRESS;
+
+    static {
+        // Validated input must always fit, the length byte takes one byte of each field
+        if (AppConfig.MAX_NAME_LENGTH >= NAME_BYTES || AppConfig.MAX_ADDRESS_LENGTH >= ADDRESS_BYTES) {
+            throw new IllegalStateException("Name or address limit does not fit the account record");
+        }
+    }
+
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final CustomerType[] CUSTOMER_TYPES = CustomerType.values();
+    private static final byte[] EMPTY = new byte[BYTES];
+    // Account statuses repeat across all records, so the few distinct ones are shared
+    private static final int MAX_STATUSES = 16;
+    private static final CopyOnWriteArrayList<String> STATUSES = new CopyOnWriteArrayList<>();
+    // Customer IDs are stored as their number, 0 when the customer has none
+    private static final CustomerIdGenerator CUSTOMER_IDS = new CustomerIdGenerator();
+
+    private AccountRecord() {
+    }
+
+    static Account decode(ByteBuffer buffer, int base, CustomerRegistry customers) {
+        return decode(buffer, base, customers, false);
+    }
+
+    /**
+     * @param legacy true for records without a customer number, whose customers get new IDs
+     */
+    static Account decode(ByteBuffer buffer, int base, CustomerRegistry customers, boolean legacy) {
+        long customerNumber = legacy ? 0 : buffer.getLong(base + CUSTOMER_NUMBER);
+        return decode(buffer, base, readString(buffer, base + ACCOUNT_NUMBER),
+                registerCustomer(buffer, base, customers, customerNumber));
+    }
+
+    /**
+     * Decodes a record that was encoded from an account whose customer is registered,
+     * such as one in the off-heap table. The customer is looked up by its number, so its
+     * text fields are only read if the registry does not know it.
+     *
+     * @param accountNumber the account number of the record, already known to the caller
+     */
+    static Account decodeRegistered(ByteBuffer buffer, int base, CustomerRegistry customers, String accountNumber) {
+        long customerNumber = buffer.getLong(base + CUSTOMER_NUMBER);
+        Customer customer = customerNumber == 0 ? null : customers.find(customerNumber);
+        if (customer == null) customer = registerCustomer(buffer, base, customers, customerNumber);
+        return decode(buffer, base, accountNumber, customer);
+    }
+
+    private static Customer registerCustomer(ByteBuffer buffer, int base, CustomerRegistry customers, long customerNumber) {
+        return customers.register(
+                CUSTOMER_TYPES[buffer.get(base + CUSTOMER_TYPE)],
+                customerNumber == 0 ? null : CUSTOMER_IDS.format(customerNumber),
+                readString(buffer, base + NAME),
+                buffer.getInt(base + CUSTOMER_AGE),
+                readString(buffer, base + CONTACT),
+                readString(buffer, base + ADDRESS));
+    }
+
+    private static Account decode(ByteBuffer buffer, int base, String accountNumber, Customer customer) {
+        return FileStorageService.createAccount(
+                ACCOUNT_TYPES[buffer.get(base + ACCOUNT_TYPE)],
+                accountNumber,
+                customer,
+                Money.ofMinor(buffer.getLong(base + BALANCE)),
+                readStatus(buffer, base + STATUS),
+                Money.ofMinor(buffer.getLong(base + MONTHLY_FEE)));
+    }
+
+    static void encode(Account account, ByteBuffer buffer, int base) {
+        encode(account, account.getCustomer(), buffer, base);
+    }
+
+    /**
+     * @param customer the customer written in place of the account's own, such as its registered copy
+     */
+    static void encode(Account account, Customer customer, ByteBuffer buffer, int base) {
+        buffer.put(base, EMPTY);
+        Money monthlyFee = account instanceof CheckingAccount checking ? checking.getMonthlyFee() : Money.ZERO;
+
+        buffer.put(base + ACCOUNT_TYPE, (byte) account.getAccountType().ordinal());
+        buffer.put(base + CUSTOMER_TYPE, (byte) customer.getCustomerType().ordinal());
+        buffer.putInt(base + CUSTOMER_AGE, customer.getAge());
+        buffer.putLong(base + BALANCE, account.getBalanceMinorUnits());
+        buffer.putLong(base + MONTHLY_FEE, monthlyFee.minorUnits());
+        putString(buffer, base + ACCOUNT_NUMBER, ACCOUNT_NUMBER_BYTES, account.getAccountNumber());
+        putString(buffer, base + STATUS, STATUS_BYTES, account.getStatus());
+        putString(buffer, base + CONTACT, CONTACT_BYTES, customer.getContact());
+        putString(buffer, base + NAME, NAME_BYTES, customer.getName());
+        putString(buffer, base + ADDRESS, ADDRESS_BYTES, customer.getAddress());
+        if (customer.getCustomerId() != null) {
+            buffer.putLong(base + CUSTOMER_NUMBER, CUSTOMER_IDS.extractIndex(customer.getCustomerId()));
+        }
+    }
+
+    static String readString(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset) & 0xff;
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a status without building a string when it is one of the few seen before.
+     */
+    private static String readStatus(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset) & 0xff;
+        for (String status : STATUSES) {
+            if (equalsAscii(buffer, offset + 1, length, status)) return status;
+        }
+        String status = readString(buffer, offset);
+        if (STATUSES.size() < MAX_STATUSES) STATUSES.addIfAbsent(status);
+        return status;
+    }
+
+    private static boolean equalsAscii(ByteBuffer buffer, int offset, int length, String value) {
+        if (value.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static void putString(ByteBuffer buffer, int offset, int fieldBytes, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= fieldBytes) {
+            throw new IllegalArgumentException(
+                    "Value does not fit the " + (fieldBytes - 1) + " byte record field: " + value);
+        }
+        buffer.put(offset, (byte) bytes.length);
+        buffer.put(offset + 1, bytes);
+    }
+}
@@ -0,0 +1,42 @@
+package services;
+
+import models.Account;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Storage behind {@link AccountManager}, keeping accounts in account number order
+ * along with a running total of their balances.
+ */
+interface AccountTable {
+    // Shorter numbers first so ACC999 sorts before ACC1000
+    Comparator<String> ACCOUNT_NUMBER_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    /**
+     * @return false if an account with the same number is already stored
+     */
+    boolean insert(Account account);
+
+    /**
+     * @return the account with that number, or null if there is none
+     */
+    Account find(String accountNumber);
+
+    /**
+     * @return up to limit accounts following afterAccountNumber, or from the start when it is null
+     */
+    List<Account> page(String afterAccountNumber, int limit);
+
+    List<Account> all();
+
+    /**
+     * @return the accounts with changes that were not saved yet, in no particular order
+     */
+    List<Account> changed();
+
+    int size();
+
+    long totalBalanceMinorUnits();
+}
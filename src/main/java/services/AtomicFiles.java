@@ -0,0 +1,74 @@
+package services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Replaces files so that a crash leaves either the old or the new content, never a mix.
+ * <p>
+ *  The content is written to a temporary file next to the target and synced, then the
+ *  temporary file is renamed over the target in one atomic step.
+ * </p>
+ */
+final class AtomicFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private AtomicFiles() {}
+
+    static void write(Path target, ContentWriter content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            content.writeTo(channel);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(target);
+    }
+
+    /**
+     * Writes the lines with a line break after each one.
+     */
+    static void writeLines(Path target, List<String> lines) throws IOException {
+        write(target, channel -> {
+            // Not closed, closing the writer would close the channel before it is synced
+            BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+        });
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform can open a directory for
+     * syncing, and the rename is atomic either way, so that failure is ignored.
+     */
+    private static void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The new content is in place, only its durability across a power loss is weaker
+        }
+    }
+}
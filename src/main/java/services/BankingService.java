@@ -1,78 +1,268 @@
 package services;
 
+import config.AppConfig;
+import interfaces.DataStorageService;
+import interfaces.TransactionJournal;
 import models.Account;
 import models.Customer;
+import models.Money;
 import models.CheckingAccount;
 import models.PremiumCustomer;
 import models.SavingsAccount;
 import models.Transaction;
+import models.TransactionFilter;
+import models.TransactionPage;
+import models.TransactionSummary;
 import models.enums.TransactionType;
 import models.exceptions.InsufficientFundsException;
+import models.exceptions.InvalidAmountException;
 import models.exceptions.OverdraftExceededException;
 import services.exceptions.AccountNotFoundException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
 
 public class BankingService {
     private final AccountManager accountManager;
     private final TransactionManager transactionManager;
+    private final TransactionJournal journal;
+    // Saves new accounts right away, null when accounts are only saved on request
+    private final DataStorageService accountStorage;
+    private final AccountLockManager lockManager;
 
     public BankingService(AccountManager accountManager, TransactionManager transactionManager) {
+        this(accountManager, transactionManager, null);
+    }
+
+    public BankingService(
+            AccountManager accountManager,
+            TransactionManager transactionManager,
+            TransactionJournal journal
+    ) {
+        this(accountManager, transactionManager, journal, null);
+    }
+
+    /**
+     * @param accountManager the accounts
+     * @param transactionManager the recorded transactions
+     * @param journal the journal confirmed transactions are appended to
+     * @param accountStorage storage every new account is saved to before it is used, so the
+     *                       journal never holds transactions of an account the storage lacks
+     */
+    public BankingService(
+            AccountManager accountManager,
+            TransactionManager transactionManager,
+            TransactionJournal journal,
+            DataStorageService accountStorage
+    ) {
         this.accountManager = accountManager;
         this.transactionManager = transactionManager;
+        this.journal = journal;
+        this.accountStorage = accountStorage;
+        this.lockManager = new AccountLockManager(AppConfig.ACCOUNT_LOCK_STRIPES);
     }
 
     /**
      * Creates a deposit transaction for the given account and amount.
      * <p>
-     * Note: This does not update the account balance. Use {@link #confirmTransaction} to apply it.
+     * Note: This does not update the account balance. Use {@link #confirmTransaction} to apply it,
+     * which records the balance the transaction actually leaves behind.
      *
      * @param account the account to deposit into
      * @param amount  the amount to deposit
      * @return a Transaction object representing the deposit
      */
-    public Transaction processDeposit(Account account, double amount) {
-        double balanceAfterTransaction = account.getBalance() + amount;
+    public Transaction processDeposit(Account account, Money amount) {
+        Money balanceAfterTransaction = account.getBalance().plus(amount);
         return this.transactionManager.createTransaction(TransactionType.DEPOSIT, account, amount, balanceAfterTransaction);
     }
 
     /**
      * Creates a deposit transaction for the given account and amount.
      * <p>
-     * Note: This does not update the account balance. Use {@link #confirmTransaction} to apply it.
+     * Note: This does not update the account balance. Use {@link #confirmTransaction} to apply it,
+     * which records the balance the transaction actually leaves behind.
      *
      * @param account the account to deposit into
      * @param amount  the amount to deposit
      * @return a Transaction object representing the deposit
      */
-    public Transaction processWithdrawal(Account account, double amount) {
-        double balanceAfterTransaction = account.getBalance() - amount;
+    public Transaction processWithdrawal(Account account, Money amount) {
+        Money balanceAfterTransaction = account.getBalance().minus(amount);
         return this.transactionManager.createTransaction(TransactionType.WITHDRAWAL, account, amount, balanceAfterTransaction);
     }
 
     /**
      * Applies a transaction to the given account by updating the balance and recording it.
+     * When a journal is configured the transaction is also appended to it.
+     * <p>
+     * The update runs under the lock stripe of the transaction's account, so
+     * transactions on different accounts can be confirmed in parallel. The balance
+     * after the transaction is read under that lock, since other transactions on the
+     * account may have been confirmed after this one was created. If the journal
+     * cannot record the transaction the balance change is rolled back.
      * <p>
      * Throws {@link OverdraftExceededException} or {@link InsufficientFundsException} if the transaction
      * violates account rules.
      *
      * @param account     the account to update
      * @param transaction the transaction to apply
+     * @return the transaction as recorded, carrying the balance it actually left behind
      * @throws OverdraftExceededException if withdrawal exceeds overdraft limit
      * @throws InsufficientFundsException if withdrawal exceeds available balance
+     * @throws UncheckedIOException if the journal cannot record the transaction
      */
-    public void confirmTransaction(Account account, Transaction transaction) throws OverdraftExceededException,
+    public Transaction confirmTransaction(Account account, Transaction transaction) throws OverdraftExceededException,
             InsufficientFundsException {
         TransactionType type = transaction.getTransactionType();
 
-        synchronized (account) {
+        Lock lock = lockManager.lockFor(transaction.getAccountNumber());
+        lock.lock();
+        try {
+            Money balanceBefore = account.getBalance();
             switch (type) {
                 case TransactionType.WITHDRAWAL -> account.withdraw(transaction.getAmount());
                 case TransactionType.DEPOSIT -> account.deposit(transaction.getAmount());
                 default -> throw new IllegalArgumentException("Unsupported transaction type: " + type);
             }
 
-            this.transactionManager.addTransaction(transaction);
+            Money balanceAfter = account.getBalance();
+            Transaction recorded = balanceAfter.equals(transaction.getBalanceAfter())
+                    ? transaction
+                    : transaction.withBalanceAfter(balanceAfter);
+            try {
+                journal(List.of(recorded));
+            } catch (RuntimeException e) {
+                account.setBalance(balanceBefore);
+                throw e;
+            }
+            this.transactionManager.addTransaction(recorded);
+            return recorded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves money from one account to another as a single atomic operation.
+     * <p>
+     * Both account locks are taken in a global stripe order, so concurrent transfers in
+     * opposite directions cannot deadlock. If the debit violates the source account's
+     * rules, or the journal cannot record the transfer, neither balance changes and
+     * nothing is recorded. On success a
+     * {@link TransactionType#TRANSFER_OUT} and a {@link TransactionType#TRANSFER_IN}
+     * transaction are recorded.
+     *
+     * @param source the account to debit
+     * @param target the account to credit
+     * @param amount the amount to move
+     * @return the debit and credit transactions, in that order
+     * @throws OverdraftExceededException if the debit exceeds the source overdraft limit
+     * @throws InsufficientFundsException if the debit exceeds the source available balance
+     */
+    public List<Transaction> transfer(Account source, Account target, Money amount)
+            throws OverdraftExceededException, InsufficientFundsException {
+        if (source.getAccountNumber().equals(target.getAccountNumber())) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        if (!amount.isPositive()) {
+            throw new InvalidAmountException("Transfer amount must be positive and greater than 0");
+        }
+
+        List<Lock> locks = lockManager.orderedLocksFor(source.getAccountNumber(), target.getAccountNumber());
+        locks.forEach(Lock::lock);
+        try {
+            Money sourceBefore = source.getBalance();
+            Money targetBefore = target.getBalance();
+            source.withdraw(amount);
+            target.deposit(amount);
+
+            Transaction debit = this.transactionManager.createTransaction(
+                    TransactionType.TRANSFER_OUT, source, amount, source.getBalance());
+            Transaction credit = this.transactionManager.createTransaction(
+                    TransactionType.TRANSFER_IN, target, amount, target.getBalance());
+
+            List<Transaction> recorded = List.of(debit, credit);
+            try {
+                journal(recorded);
+            } catch (RuntimeException e) {
+                source.setBalance(sourceBefore);
+                target.setBalance(targetBefore);
+                throw e;
+            }
+            recorded.forEach(this.transactionManager::addTransaction);
+            return recorded;
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) locks.get(i).unlock();
+        }
+    }
+
+    private void journal(List<Transaction> transactions) {
+        if (journal == null) return;
+        try {
+            if (transactions.size() == 1) journal.append(transactions.getFirst());
+            else journal.appendAll(transactions);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal transaction " + transactions.getFirst().getTransactionId(), e);
+        }
+    }
+
+    /**
+     * Copies the accounts changed since they were last saved and clears their marks.
+     * Each account is copied while its lock is held, so a copied balance is always one
+     * left behind by a transaction that was already journaled, and only the changed
+     * accounts are visited.
+     *
+     * @return detached copies of the changed accounts
+     */
+    public List<Account> copyChangedAccounts() {
+        List<Account> copies = new ArrayList<>();
+        for (Account account : accountManager.getChangedAccounts()) {
+            Lock lock = lockManager.lockFor(account.getAccountNumber());
+            lock.lock();
+            try {
+                // Cleared before the copy is made, so a later change marks the account again
+                account.clearDirty();
+                copies.add(AccountManager.detachedCopy(account));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Marks accounts as changed again, such as after a save of their copies failed.
+     *
+     * @param accounts the accounts, or copies of them
+     */
+    public void markUnsaved(List<Account> accounts) {
+        for (Account account : accounts) {
+            accountManager.markChanged(account.getAccountNumber());
+        }
+    }
+
+    /**
+     * Runs an action while no transaction can change any balance, such as sealing the
+     * journal at a point no transaction is halfway through.
+     * <p>
+     * Every account lock is held during the action, so it should finish quickly.
+     *
+     * @param action the action to run
+     * @return the result of the action
+     * @throws Exception whatever the action throws
+     */
+    public <T> T withAllAccountsLocked(Callable<T> action) throws Exception {
+        lockManager.lockAll();
+        try {
+            return action.call();
+        } finally {
+            lockManager.unlockAll();
         }
     }
 
@@ -86,8 +276,8 @@ public class BankingService {
      * @return the newly created SavingsAccount
      */
     public Account createSavingsAccount(Customer customer) {
-        SavingsAccount newAccount = accountManager.createSavingsAccount(customer, 0);
-        accountManager.addAccount(newAccount);
+        SavingsAccount newAccount = accountManager.createSavingsAccount(customer, Money.ZERO);
+        addAccount(newAccount);
         return newAccount;
     }
 
@@ -101,15 +291,37 @@ public class BankingService {
      * @return the newly created CheckingAccount
      */
     public Account createCheckingAccount(Customer customer) {
-        CheckingAccount newAccount = accountManager.createCheckingAccount(customer, 0);
+        CheckingAccount newAccount = accountManager.createCheckingAccount(customer, Money.ZERO);
 
-        if(customer instanceof PremiumCustomer) newAccount.setMonthlyFee(0);
+        if(customer instanceof PremiumCustomer) newAccount.setMonthlyFee(Money.ZERO);
 
-        accountManager.addAccount(newAccount);
+        addAccount(newAccount);
 
         return newAccount;
     }
 
+    /**
+     * Saves a new account before adding it. Only transactions are journaled, so an
+     * account missing from storage after a crash would leave its journaled history
+     * to the next account handed the same number.
+     *
+     * @throws UncheckedIOException if the account cannot be saved, in which case it is not added
+     */
+    private void addAccount(Account account) {
+        if (accountStorage != null) {
+            try {
+                accountStorage.saveChangedAccounts(List.of(account), () -> {
+                    List<Account> accounts = new ArrayList<>(accountManager.getAllAccounts());
+                    accounts.add(account);
+                    return accounts;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not save account " + account.getAccountNumber(), e);
+            }
+        }
+        accountManager.addAccount(account);
+    }
+
     public List<Transaction> viewAllTransactions() {
         return transactionManager.getAllTransactions();
     }
@@ -118,23 +330,63 @@ public class BankingService {
         return accountManager.getAllAccounts();
     }
 
+    public List<Account> viewAccounts(String afterAccountNumber, int limit) {
+        return accountManager.getAccounts(afterAccountNumber, limit);
+    }
+
+    public int getTransactionCount() {
+        return transactionManager.getTransactionCount();
+    }
+
+    public int getStoredAccountCount() {
+        return accountManager.getStoredAccountCount();
+    }
+
     public List<Transaction> getTransactionsByAccount(String accountNumber) {
         return transactionManager.viewTransactionsByAccount(accountNumber);
     }
 
-    public double getTotalDeposit(String accountNumber) {
+    public List<Transaction> getTransactionsBetween(Instant from, Instant to) {
+        return transactionManager.viewTransactionsBetween(from, to);
+    }
+
+    public List<Transaction> getTransactionsBetween(String accountNumber, Instant from, Instant to) {
+        return transactionManager.viewTransactionsBetween(accountNumber, from, to);
+    }
+
+    public long countTransactions(TransactionFilter filter) {
+        return transactionManager.countTransactions(filter);
+    }
+
+    public Money sumTransactionAmounts(TransactionFilter filter) {
+        return transactionManager.sumTransactionAmounts(filter);
+    }
+
+    public TransactionPage getRecentTransactions(String accountNumber, int limit) {
+        return transactionManager.viewRecentTransactions(accountNumber, limit);
+    }
+
+    public TransactionPage getOlderTransactions(String accountNumber, int cursor, int limit) {
+        return transactionManager.viewOlderTransactions(accountNumber, cursor, limit);
+    }
+
+    public Money getTotalDeposit(String accountNumber) {
         return transactionManager.calculateTotalDeposits(accountNumber);
     }
 
-    public double getTotalWithdrawals(String accountNumber) {
+    public Money getTotalWithdrawals(String accountNumber) {
         return transactionManager.calculateTotalWithdrawals(accountNumber);
     }
 
-    public double getTotalBankBalance() {
+    public TransactionSummary getTransactionSummary(String accountNumber) {
+        return transactionManager.getTransactionSummary(accountNumber);
+    }
+
+    public Money getTotalBankBalance() {
         return accountManager.getTotalBalance();
     }
 
-    public int getAccountCount() {
+    public long getAccountCount() {
         return accountManager.getAccountCount();
     }
 
@@ -0,0 +1,301 @@
+package services;
+
+import interfaces.DataStorageService;
+import models.Account;
+import models.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Stores accounts in a binary snapshot made of fixed-width records and reads
+ * them back through a memory-mapped file.
+ * <p>
+ *  Every account owns a slot in the file, so loading is a sequential scan over
+ *  the mapped records and saving only rewrites the slots of accounts that changed
+ *  since they were last saved, which keeps the cost of a save proportional to the
+ *  activity since the previous one rather than to the number of accounts.
+ *  Transactions are handled by the wrapped storage service. When no snapshot exists
+ *  yet, the accounts of the wrapped storage are imported into a new one once; the
+ *  wrapped storage is not written to again, so its account file stops changing.
+ * </p>
+ * <p>
+ *  Slots are updated in place, so the changed records are first written to a
+ *  pending update file, which appears atomically once it is complete and synced.
+ *  Only then are they copied into the snapshot and the pending file deleted. If
+ *  the application stops in between, the pending update is applied again the next
+ *  time the snapshot is opened, so a save is never left half done.
+ * </p>
+ */
+public class BinaryAccountStorageService implements DataStorageService {
+    private static final int MAGIC = 0x42414e4b; // "BANK"
+    // Version 1 records have no customer number
+    private static final int LEGACY_VERSION = 1;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = AccountRecord.BYTES;
+
+    // Pending update layout: [magic][flags][slot count][entries] {[slot][record]}... [crc32]
+    private static final int PENDING_MAGIC = 0x50454e44; // "PEND"
+    private static final int PENDING_HEADER_BYTES = 16;
+    private static final int PENDING_ENTRY_BYTES = Integer.BYTES + RECORD_BYTES;
+    private static final int PENDING_BATCH_BYTES = 64 * 1024;
+    // Set when the snapshot is replaced as a whole rather than updated
+    private static final int FLAG_REWRITE = 1;
+    private static final String PENDING_SUFFIX = ".pending";
+
+    private final Path snapshotPath;
+    private final Path pendingPath;
+    private final DataStorageService delegate;
+    private final CustomerRegistry customers;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public BinaryAccountStorageService(String snapshotFile, DataStorageService delegate) {
+        this(snapshotFile, delegate, new CustomerRegistry());
+    }
+
+    public BinaryAccountStorageService(String snapshotFile, DataStorageService delegate, CustomerRegistry customers) {
+        this.snapshotPath = Paths.get(snapshotFile);
+        this.pendingPath = Paths.get(snapshotFile + PENDING_SUFFIX);
+        this.delegate = delegate;
+        this.customers = customers;
+    }
+
+    @Override
+    public synchronized Map<String, Account> loadAccounts() throws IOException {
+        applyPendingUpdate();
+        if (Files.notExists(snapshotPath)) return importAccounts();
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int count = readHeader(buffer, channel.size());
+            boolean legacy = buffer.getInt(4) == LEGACY_VERSION;
+
+            Map<String, Account> accounts = new HashMap<>(Math.max(16, count * 2));
+            slots.clear();
+            for (int slot = 0; slot < count; slot++) {
+                Account account = AccountRecord.decode(buffer, slotOffset(slot), customers, legacy);
+                // Legacy records still have to be rewritten in the current layout
+                if (!legacy) account.clearDirty();
+                if (accounts.putIfAbsent(account.getAccountNumber(), account) != null) {
+                    throw new IllegalStateException("Duplicate account number:" + account.getAccountNumber());
+                }
+                slots.put(account.getAccountNumber(), slot);
+            }
+            return accounts;
+        }
+    }
+
+    /**
+     * Reads the accounts from the wrapped storage, such as the accounts.txt of earlier
+     * versions, and writes them to a new snapshot right away. From then on the snapshot
+     * is loaded instead, so the import happens once and the wrapped storage keeps the
+     * accounts as they were when they were imported.
+     */
+    private Map<String, Account> importAccounts() throws IOException {
+        Map<String, Account> accounts = delegate.loadAccounts();
+        if (!accounts.isEmpty()) {
+            List<Account> sorted = new ArrayList<>(accounts.values());
+            sorted.sort(Comparator.comparing(Account::getAccountNumber, AccountTable.ACCOUNT_NUMBER_ORDER));
+            saveAccounts(sorted);
+        }
+        return accounts;
+    }
+
+    @Override
+    public synchronized void saveAccounts(List<Account> accounts) throws IOException {
+        // Finishes a save the application stopped in the middle of
+        applyPendingUpdate();
+
+        boolean rewrite = false;
+        if (Files.exists(snapshotPath)) {
+            try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+                // Older snapshots are rewritten in full in the current layout
+                rewrite = isLegacySnapshot(channel);
+                if (rewrite) {
+                    slots.clear();
+                } else if (slots.isEmpty() && channel.size() > 0) {
+                    rebuildSlots(channel);
+                }
+            }
+        }
+
+        List<Account> changed = new ArrayList<>();
+        for (Account account : accounts) {
+            boolean newSlot = !slots.containsKey(account.getAccountNumber());
+            if (newSlot) slots.put(account.getAccountNumber(), slots.size());
+            // The mark is cleared before the record is encoded, so a change racing with
+            // the save marks the account again for the next one
+            if (account.clearDirty() || newSlot) changed.add(account);
+        }
+
+        try {
+            writePendingUpdate(changed, slots.size(), rewrite);
+            applyPendingUpdate();
+        } catch (IOException | RuntimeException e) {
+            changed.forEach(Account::markDirty);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes only the records of the changed accounts, giving new ones the next slots.
+     * An older snapshot is rewritten in full by the save, so it still needs every account.
+     */
+    @Override
+    public synchronized void saveChangedAccounts(List<Account> changed, Supplier<List<Account>> accounts)
+            throws IOException {
+        saveAccounts(isLegacySnapshot() ? accounts.get() : changed);
+    }
+
+    /**
+     * Writes the records of the changed accounts to the pending update file without
+     * touching the snapshot.
+     */
+    void writePendingUpdate(List<Account> changed, int count, boolean rewrite) throws IOException {
+        AtomicFiles.write(pendingPath, channel -> {
+            CRC32 crc = new CRC32();
+            ByteBuffer batch = ByteBuffer.allocate(Math.max(PENDING_HEADER_BYTES, PENDING_BATCH_BYTES));
+            batch.putInt(PENDING_MAGIC).putInt(rewrite ? FLAG_REWRITE : 0).putInt(count).putInt(changed.size());
+
+            for (Account account : changed) {
+                if (batch.remaining() < PENDING_ENTRY_BYTES) writeBatch(channel, batch, crc);
+                int entry = batch.position();
+                batch.putInt(entry, slots.get(account.getAccountNumber()));
+                AccountRecord.encode(account, batch, entry + Integer.BYTES);
+                batch.position(entry + PENDING_ENTRY_BYTES);
+            }
+            writeBatch(channel, batch, crc);
+
+            AtomicFiles.writeFully(channel, ByteBuffer.allocate(Integer.BYTES).putInt(0, (int) crc.getValue()));
+        });
+    }
+
+    private static void writeBatch(FileChannel channel, ByteBuffer batch, CRC32 crc) throws IOException {
+        batch.flip();
+        crc.update(batch.duplicate());
+        AtomicFiles.writeFully(channel, batch);
+        batch.clear();
+    }
+
+    /**
+     * Copies the records of an intact pending update into their slots, syncs the
+     * snapshot and deletes the pending file. Applying the same update twice gives
+     * the same snapshot, so an update interrupted at any point can be applied again.
+     */
+    private void applyPendingUpdate() throws IOException {
+        if (Files.notExists(pendingPath)) return;
+
+        try (FileChannel pending = FileChannel.open(pendingPath, StandardOpenOption.READ)) {
+            MappedByteBuffer update = pending.map(FileChannel.MapMode.READ_ONLY, 0, pending.size());
+            // A damaged update was never applied, so the snapshot is still untouched
+            if (isIntact(update)) {
+                try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    if ((update.getInt(4) & FLAG_REWRITE) != 0) channel.truncate(0);
+
+                    int count = update.getInt(8);
+                    int entries = update.getInt(12);
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, slotOffset(count));
+                    writeHeader(buffer, count);
+                    for (int i = 0; i < entries; i++) {
+                        int entry = PENDING_HEADER_BYTES + i * PENDING_ENTRY_BYTES;
+                        buffer.put(slotOffset(update.getInt(entry)), update, entry + Integer.BYTES, RECORD_BYTES);
+                    }
+                    buffer.force();
+                }
+            }
+        }
+        Files.delete(pendingPath);
+    }
+
+    private static boolean isIntact(MappedByteBuffer update) {
+        int size = update.capacity();
+        if (size < PENDING_HEADER_BYTES + Integer.BYTES || update.getInt(0) != PENDING_MAGIC) return false;
+        if (size != PENDING_HEADER_BYTES + (long) update.getInt(12) * PENDING_ENTRY_BYTES + Integer.BYTES) return false;
+
+        CRC32 crc = new CRC32();
+        crc.update(update.slice(0, size - Integer.BYTES));
+        return (int) crc.getValue() == update.getInt(size - Integer.BYTES);
+    }
+
+    @Override
+    public Map<String, List<Transaction>> loadTransactions() throws IOException {
+        return delegate.loadTransactions();
+    }
+
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws IOException {
+        delegate.saveTransactions(transactions);
+    }
+
+    @Override
+    public void saveTransactions(Supplier<List<Transaction>> transactions) throws IOException {
+        delegate.saveTransactions(transactions);
+    }
+
+    @Override
+    public void appendTransactions(List<Transaction> transactions) throws IOException {
+        delegate.appendTransactions(transactions);
+    }
+
+    private void rebuildSlots(FileChannel channel) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int count = readHeader(buffer, channel.size());
+        for (int slot = 0; slot < count; slot++) {
+            slots.put(AccountRecord.readString(buffer, slotOffset(slot) + AccountRecord.ACCOUNT_NUMBER), slot);
+        }
+    }
+
+    private boolean isLegacySnapshot() throws IOException {
+        if (Files.notExists(snapshotPath)) return false;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            return isLegacySnapshot(channel);
+        }
+    }
+
+    private static boolean isLegacySnapshot(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        return header.position() == HEADER_BYTES
+                && header.getInt(0) == MAGIC
+                && header.getInt(4) == LEGACY_VERSION;
+    }
+
+    private static int slotOffset(int slot) {
+        // A single mapping is int-indexed, which caps a snapshot at about eight million accounts
+        return Math.toIntExact(HEADER_BYTES + (long) slot * RECORD_BYTES);
+    }
+
+    private static int readHeader(MappedByteBuffer buffer, long fileSize) {
+        if (fileSize < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an account snapshot file");
+        }
+        int version = buffer.getInt(4);
+        if ((version != VERSION && version != LEGACY_VERSION) || buffer.getInt(8) != RECORD_BYTES) {
+            throw new IllegalStateException("Unsupported account snapshot version: " + buffer.getInt(4));
+        }
+
+        int count = buffer.getInt(12);
+        if (HEADER_BYTES + (long) count * RECORD_BYTES > fileSize) {
+            throw new IllegalStateException("Account snapshot is truncated");
+        }
+        return count;
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, int count) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_BYTES);
+        buffer.putInt(12, count);
+    }
+}
@@ -0,0 +1,161 @@
+package services;
+
+import models.Transaction;
+import models.TransactionFilter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Column-oriented copy of every recorded transaction for bank-wide aggregates.
+ * <p>
+ *  Each field is kept in its own primitive array, grown in fixed-size chunks, so a scan
+ *  reads contiguous memory instead of following a reference per transaction. Scans are
+ *  split into row ranges and run on a {@link ForkJoinPool}.
+ * </p>
+ * <p>
+ *  Appends are serialized on the store and published through the volatile row count,
+ *  so a scan sees every row appended before it started and never a partly written one.
+ * </p>
+ */
+class ColumnarTransactionStore {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Smallest row range worth handing to another worker
+    private static final int SPLIT_THRESHOLD = 1 << 14;
+    private static final int NO_ACCOUNT = -1;
+
+    private static final class Chunk {
+        private final long[] epochMicros = new long[CHUNK_SIZE];
+        private final long[] amounts = new long[CHUNK_SIZE];
+        private final long[] balancesAfter = new long[CHUNK_SIZE];
+        private final int[] accounts = new int[CHUNK_SIZE];
+        private final byte[] types = new byte[CHUNK_SIZE];
+    }
+
+    /**
+     * Running result of a scan: how many rows matched and the sum of their amounts in cents.
+     */
+    record Aggregate(long count, long amountMinorUnits) {
+        private static final Aggregate EMPTY = new Aggregate(0, 0);
+
+        private Aggregate plus(Aggregate other) {
+            return new Aggregate(count + other.count, amountMinorUnits + other.amountMinorUnits);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final Map<String, Integer> accountIndexes = new ConcurrentHashMap<>();
+    private Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+
+    ColumnarTransactionStore(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    synchronized void append(Transaction transaction) {
+        int row = size;
+        int chunkIndex = row >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            chunks[chunkIndex] = new Chunk();
+        }
+
+        Chunk chunk = chunks[chunkIndex];
+        int offset = row & CHUNK_MASK;
+        chunk.epochMicros[offset] = transaction.getEpochMicros();
+        chunk.amounts[offset] = transaction.getAmountMinorUnits();
+        chunk.balancesAfter[offset] = transaction.getBalanceAfter().minorUnits();
+        chunk.accounts[offset] = accountIndexes.computeIfAbsent(
+                transaction.getAccountNumber(), key -> accountIndexes.size());
+        chunk.types[offset] = (byte) transaction.getTransactionType().ordinal();
+
+        size = row + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Counts the matching rows and sums their amounts in one pass.
+     */
+    Aggregate scan(TransactionFilter filter) {
+        int rows = size;
+        Chunk[] snapshot;
+        synchronized (this) {
+            snapshot = chunks;
+        }
+
+        int account = NO_ACCOUNT;
+        if (filter.accountNumber() != null) {
+            Integer index = accountIndexes.get(filter.accountNumber());
+            if (index == null) return Aggregate.EMPTY;
+            account = index;
+        }
+
+        RowPredicate predicate = new RowPredicate(
+                filter.type() == null ? -1 : filter.type().ordinal(),
+                account,
+                filter.from() == null ? Long.MIN_VALUE : Transaction.toEpochMicros(filter.from()),
+                filter.to() == null ? Long.MAX_VALUE : Transaction.toEpochMicros(filter.to()));
+
+        if (rows <= SPLIT_THRESHOLD) return scanRange(snapshot, predicate, 0, rows);
+        return pool.invoke(new ScanTask(snapshot, predicate, 0, rows));
+    }
+
+    private record RowPredicate(int type, int account, long fromMicros, long toMicros) {
+    }
+
+    private static Aggregate scanRange(Chunk[] chunks, RowPredicate predicate, int start, int end) {
+        long count = 0;
+        long sum = 0;
+
+        int row = start;
+        while (row < end) {
+            Chunk chunk = chunks[row >>> CHUNK_SHIFT];
+            int offset = row & CHUNK_MASK;
+            int last = Math.min(CHUNK_SIZE, offset + (end - row));
+
+            for (int i = offset; i < last; i++) {
+                long time = chunk.epochMicros[i];
+                if (time < predicate.fromMicros() || time >= predicate.toMicros()) continue;
+                if (predicate.type() >= 0 && chunk.types[i] != predicate.type()) continue;
+                if (predicate.account() >= 0 && chunk.accounts[i] != predicate.account()) continue;
+                count++;
+                sum += chunk.amounts[i];
+            }
+            row += last - offset;
+        }
+        return new Aggregate(count, sum);
+    }
+
+    private static final class ScanTask extends RecursiveTask<Aggregate> {
+        private final Chunk[] chunks;
+        private final RowPredicate predicate;
+        private final int start;
+        private final int end;
+
+        private ScanTask(Chunk[] chunks, RowPredicate predicate, int start, int end) {
+            this.chunks = chunks;
+            this.predicate = predicate;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            if (end - start <= SPLIT_THRESHOLD) return scanRange(chunks, predicate, start, end);
+
+            int middle = (start + end) >>> 1;
+            ScanTask left = new ScanTask(chunks, predicate, start, middle);
+            left.fork();
+            Aggregate right = new ScanTask(chunks, predicate, middle, end).compute();
+            return left.join().plus(right);
+        }
+    }
+}
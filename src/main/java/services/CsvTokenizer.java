@@ -0,0 +1,249 @@
+package services;
+
+import models.Money;
+import models.Transaction;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Reads the comma separated fields of a csv line straight out of a character buffer.
+ * <p>
+ *  Numbers, amounts, enum constants and timestamps are parsed in place, so only the
+ *  fields that are kept as text become strings. A tokenizer is reset for every line
+ *  and reused for the next one, which keeps parsing a large file free of per-line
+ *  garbage. Fields are trimmed. A tokenizer is not thread-safe, so every thread
+ *  parsing lines uses its own.
+ * </p>
+ */
+final class CsvTokenizer {
+    private static final int NANOS_PER_MICRO = 1_000;
+    private static final long SECONDS_PER_DAY = 86_400;
+    // Length of 2025-12-10T08:45:12Z, the shortest timestamp the fast path reads
+    private static final int MIN_TIMESTAMP_LENGTH = 20;
+
+    private CharSequence text;
+    private int lineStart;
+    private int lineEnd;
+    private int fieldStart;
+    private int fieldEnd;
+    private int next;
+
+    CsvTokenizer reset(CharSequence text) {
+        return reset(text, 0, text.length());
+    }
+
+    /**
+     * Starts reading the line between start and end of the given text.
+     *
+     * @return this tokenizer, positioned before the first field
+     */
+    CsvTokenizer reset(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        this.text = text;
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.fieldStart = start;
+        this.fieldEnd = start;
+        this.next = start;
+        return this;
+    }
+
+    /**
+     * @return true if the line is blank or a # comment and holds no record
+     */
+    boolean isSkippable() {
+        return lineStart == lineEnd || text.charAt(lineStart) == '#';
+    }
+
+    boolean hasNext() {
+        return next <= lineEnd;
+    }
+
+    /**
+     * @return the current line, for error messages
+     */
+    String line() {
+        return text.subSequence(lineStart, lineEnd).toString();
+    }
+
+    /**
+     * @return the length of the field read last
+     */
+    int fieldLength() {
+        return fieldEnd - fieldStart;
+    }
+
+    String nextString(String fieldName) {
+        advance(fieldName);
+        return field();
+    }
+
+    int nextInt(String fieldName) {
+        advance(fieldName);
+        long value = parseDigits(fieldStart, fieldEnd, fieldName, "integer");
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw invalid(fieldName, "integer");
+        return (int) value;
+    }
+
+    /**
+     * Reads a number written after a fixed prefix, such as 42 from TXN042.
+     * {@link #fieldLength()} then tells how many digits it was written with.
+     */
+    long nextPrefixedNumber(String prefix, String fieldName) {
+        advance(fieldName);
+        int length = prefix.length();
+        if (fieldLength() <= length || !startsWith(prefix)
+                || !Character.isDigit(text.charAt(fieldStart + length))) {
+            throw invalid(fieldName, "ID");
+        }
+        return parseDigits(fieldStart + length, fieldEnd, fieldName, "ID");
+    }
+
+    long nextMinorUnits(String fieldName) {
+        advance(fieldName);
+        try {
+            return Money.parseMinorUnits(text, fieldStart, fieldEnd);
+        } catch (NumberFormatException e) {
+            throw invalid(fieldName, "amount");
+        }
+    }
+
+    /**
+     * Reads a constant by its name or display name, ignoring case, e.g. Transfer Out for TRANSFER_OUT.
+     */
+    <E extends Enum<E>> E nextEnum(E[] constants, String fieldName) {
+        advance(fieldName);
+        for (E constant : constants) {
+            if (matchesConstant(constant.name())) return constant;
+        }
+        throw invalid(fieldName, "value");
+    }
+
+    /**
+     * Reads an ISO-8601 UTC timestamp such as 2025-12-10T08:45:12.345678Z as microseconds
+     * since the epoch. Other forms Instant accepts are parsed through it.
+     */
+    long nextEpochMicros(String fieldName) {
+        advance(fieldName);
+        try {
+            long micros = parseUtcTimestamp();
+            if (micros != Long.MIN_VALUE) return micros;
+            return Transaction.toEpochMicros(Instant.parse(field()));
+        } catch (DateTimeException | ArithmeticException e) {
+            throw invalid(fieldName, "timestamp");
+        }
+    }
+
+    private void advance(String fieldName) {
+        if (!hasNext()) {
+            throw new IllegalArgumentException("Missing column " + fieldName + " in line: " + line());
+        }
+
+        int comma = next;
+        while (comma < lineEnd && text.charAt(comma) != ',') comma++;
+
+        int start = next;
+        int end = comma;
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        fieldStart = start;
+        fieldEnd = end;
+        next = comma + 1;
+    }
+
+    private String field() {
+        return text.subSequence(fieldStart, fieldEnd).toString();
+    }
+
+    private boolean startsWith(String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(fieldStart + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean matchesConstant(String name) {
+        if (fieldLength() != name.length()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = text.charAt(fieldStart + i);
+            char expected = name.charAt(i);
+            if (Character.toUpperCase(c) != expected && !(c == ' ' && expected == '_')) return false;
+        }
+        return true;
+    }
+
+    private long parseDigits(int start, int end, String fieldName, String kind) {
+        boolean negative = start < end && text.charAt(start) == '-';
+        int position = negative || (start < end && text.charAt(start) == '+') ? start + 1 : start;
+        if (position == end) throw invalid(fieldName, kind);
+
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = text.charAt(position) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) throw invalid(fieldName, kind);
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the timestamp in microseconds, or Long.MIN_VALUE if it is not in the plain UTC form
+     */
+    private long parseUtcTimestamp() {
+        int p = fieldStart;
+        if (fieldLength() < MIN_TIMESTAMP_LENGTH || text.charAt(fieldEnd - 1) != 'Z'
+                || text.charAt(p + 4) != '-' || text.charAt(p + 7) != '-' || text.charAt(p + 10) != 'T'
+                || text.charAt(p + 13) != ':' || text.charAt(p + 16) != ':') {
+            return Long.MIN_VALUE;
+        }
+
+        int year = digits(p, 4);
+        int month = digits(p + 5, 2);
+        int day = digits(p + 8, 2);
+        int hour = digits(p + 11, 2);
+        int minute = digits(p + 14, 2);
+        int second = digits(p + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0 || hour > 23 || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int nanos = 0;
+        int position = p + 19;
+        if (position < fieldEnd - 1) {
+            if (text.charAt(position++) != '.') return Long.MIN_VALUE;
+            int fractionDigits = fieldEnd - 1 - position;
+            if (fractionDigits < 1 || fractionDigits > 9) return Long.MIN_VALUE;
+
+            nanos = digits(position, fractionDigits);
+            if (nanos < 0) return Long.MIN_VALUE;
+            for (int i = fractionDigits; i < 9; i++) nanos *= 10;
+        }
+
+        long seconds = LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY
+                + hour * 3_600L + minute * 60L + second;
+        return Math.addExact(Math.multiplyExact(seconds, 1_000_000L), nanos / NANOS_PER_MICRO);
+    }
+
+    /**
+     * @return the value of count digits starting at position, or -1 if any of them is not a digit
+     */
+    private int digits(int position, int count) {
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private IllegalArgumentException invalid(String fieldName, String kind) {
+        return new IllegalArgumentException(
+                "Invalid " + kind + " for " + fieldName + ": " + field() + " in line: " + line());
+    }
+}
@@ -0,0 +1,135 @@
+package services;
+
+import interfaces.AutoIdGenerator;
+import models.Customer;
+import models.PremiumCustomer;
+import models.RegularCustomer;
+import models.enums.CustomerType;
+import utils.id.CustomerIdGenerator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one customer object per person and hands out customer IDs.
+ * <p>
+ *  Customers with the same type, name, age, contact and address are the same person,
+ *  so all of their accounts share one object and one ID. IDs read back from storage
+ *  are kept, which keeps them stable across restarts, and new IDs continue after the
+ *  highest one seen. Field values repeated across customers, such as the address of a
+ *  household, are pooled so each distinct value is held in memory once. Values are only
+ *  pooled when a new customer is created, and that customer keeps them anyway, so the
+ *  pool holds nothing the registered customers do not.
+ * </p>
+ * <p>
+ *  Registering takes the registry lock, but looking a customer up by its number and
+ *  pooling values do not, so reading accounts never waits on it.
+ * </p>
+ */
+public class CustomerRegistry {
+    private record Identity(CustomerType type, String name, int age, String contact, String address) {}
+
+    private final AutoIdGenerator idGenerator;
+    private final Map<Identity, Customer> customers = new HashMap<>();
+    private final Set<String> customerIds = new HashSet<>();
+    private final Map<Long, Customer> byNumber = new ConcurrentHashMap<>();
+    // Holds the distinct customer fields and account statuses
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    public CustomerRegistry() {
+        this(new CustomerIdGenerator());
+    }
+
+    public CustomerRegistry(AutoIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Returns the registered customer with these details, creating it if this
+     * person has not been seen before.
+     *
+     * @param type the customer type
+     * @param customerId the stored ID of the customer, or null to assign a new one
+     * @param name the customer name
+     * @param age the customer age
+     * @param contact the customer contact
+     * @param address the customer address
+     * @return the one customer object for this person
+     * @throws IllegalArgumentException if the customer ID is malformed
+     */
+    public synchronized Customer register(
+            CustomerType type, String customerId, String name, int age, String contact, String address) {
+        Identity identity = new Identity(type, name, age, contact, address);
+        Customer existing = customers.get(identity);
+        if (existing != null) return existing;
+
+        identity = new Identity(type, pool(name), age, pool(contact), pool(address));
+        Customer customer = create(identity, assignId(customerId));
+        customers.put(identity, customer);
+        byNumber.put(idGenerator.extractIndex(customer.getCustomerId()), customer);
+        return customer;
+    }
+
+    /**
+     * Returns the registered customer with the given customer number, without locking.
+     *
+     * @param customerNumber the numeric part of the customer ID
+     * @return the customer, or null if none is registered with that number
+     */
+    public Customer find(long customerNumber) {
+        return byNumber.get(customerNumber);
+    }
+
+    /**
+     * Returns the registered customer with the same details as the given one,
+     * registering it if needed.
+     *
+     * @param customer a customer that may not be registered yet
+     * @return the one customer object for this person
+     */
+    public Customer register(Customer customer) {
+        return register(customer.getCustomerType(), customer.getCustomerId(),
+                customer.getName(), customer.getAge(), customer.getContact(), customer.getAddress());
+    }
+
+    /**
+     * Returns one shared instance of the given value, for text that repeats
+     * across many records, such as account statuses and addresses.
+     */
+    public String pool(String value) {
+        String pooled = pool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    public synchronized int size() {
+        return customers.size();
+    }
+
+    private String assignId(String customerId) {
+        if (customerId == null || customerId.isEmpty() || customerIds.contains(customerId)) {
+            String generated;
+            do {
+                generated = idGenerator.generateId();
+            } while (customerIds.contains(generated));
+            customerIds.add(generated);
+            return generated;
+        }
+
+        long index = idGenerator.extractIndex(customerId);
+        if (index > idGenerator.getCounter()) idGenerator.setIdCounter(index);
+        customerIds.add(customerId);
+        return customerId;
+    }
+
+    private static Customer create(Identity identity, String customerId) {
+        return switch (identity.type()) {
+            case PREMIUM -> new PremiumCustomer(
+                    customerId, identity.name(), identity.age(), identity.contact(), identity.address());
+            case REGULAR -> new RegularCustomer(
+                    customerId, identity.name(), identity.age(), identity.contact(), identity.address());
+        };
+    }
+}
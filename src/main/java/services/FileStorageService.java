@@ -6,38 +6,45 @@ import models.enums.AccountType;
 import models.enums.CustomerType;
 import models.enums.TransactionType;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Handles loading and saving of accounts and transactions from csv files.
  * <p>
  *  This service reconstructs domain objects from stored file data and
- *  serializes in-memory objects back into file format.
+ *  serializes in-memory objects back into file format. Saving replaces a file
+ *  atomically, so it holds either the previous or the new content after a crash.
  * </p>
  */
 public class FileStorageService implements DataStorageService {
 
+    // Provides column structure that would be ignored when reading due to '#'
+    static final String TRANSACTIONS_HEADER =
+            "#transactionId,transactionType,accountNumber,amount,balanceAfter,timestamp";
+
     private final String accountsFile;
     private final String transactionsFile;
+    private final CustomerRegistry customers;
+    private final ParallelTransactionLoader transactionLoader =
+            new ParallelTransactionLoader(ForkJoinPool.commonPool(), FileStorageService::parseTransaction);
 
-    private record CustomerData(String name, int age, String contact, String address) {}
-    private record AccountInput(
-            AccountType type, String number, Customer customer, double balance, String status, double monthlyFee){}
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final CustomerType[] CUSTOMER_TYPES = CustomerType.values();
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
 
-    private static final Map<CustomerType, Function<CustomerData, Customer>> CUSTOMER_FACTORY = Map.of(
-            CustomerType.PREMIUM, data -> new PremiumCustomer(
-                    data.name, data.age(), data.contact(), data.address()),
-            CustomerType.REGULAR, data -> new RegularCustomer(
-                    data.name(), data.age(), data.contact(), data.address())
-    );
+    private record AccountInput(
+            AccountType type, String number, Customer customer, Money balance, String status, Money monthlyFee){}
 
     private static final Map<AccountType, Function<AccountInput, Account>> ACCOUNT_FACTORY = Map.of(
             AccountType.SAVINGS, in -> new SavingsAccount(
@@ -53,9 +60,18 @@ public class FileStorageService implements DataStorageService {
     public FileStorageService(
             String accountsFile,
             String transactionsFile
+    ) {
+        this(accountsFile, transactionsFile, new CustomerRegistry());
+    }
+
+    public FileStorageService(
+            String accountsFile,
+            String transactionsFile,
+            CustomerRegistry customers
     ) {
         this.accountsFile = accountsFile;
         this.transactionsFile = transactionsFile;
+        this.customers = customers;
     }
 
     @Override
@@ -63,43 +79,38 @@ public class FileStorageService implements DataStorageService {
         Path path = Paths.get(this.accountsFile);
         if(Files.notExists(path)) return new HashMap<>();
 
-        try(Stream<String> lines = Files.lines(path)) {
-            return  lines
-                    .map(String::trim)
-                    .filter(line -> !line.isEmpty())
-                    .filter(line -> !line.startsWith("#"))
-                    .map(this::parseAccountLine)
-                    .collect(Collectors.toMap(
-                            Account::getAccountNumber,
-                            Function.identity(),
-                            (existing, duplicate) -> {
-                                throw new IllegalStateException("Duplicate account number:" + existing.getAccountNumber());
-                            },
-                            HashMap::new
-                    ));
+        Map<String, Account> accounts = new HashMap<>();
+        CsvTokenizer fields = new CsvTokenizer();
+        try(BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (fields.reset(line).isSkippable()) continue;
+
+                Account account = parseAccount(fields);
+                if (accounts.putIfAbsent(account.getAccountNumber(), account) != null) {
+                    throw new IllegalStateException("Duplicate account number:" + account.getAccountNumber());
+                }
+            }
         }
+        return accounts;
     }
 
-    private Account parseAccountLine(String line) {
-        String[] columns = line.split(",");
-
-        final int EXPECTED_COLS = 10;
-        if(columns.length < EXPECTED_COLS) {
-            throw new IllegalArgumentException("Invalid account row (expected" + EXPECTED_COLS + " columns:" + "line");
-        }
-
-        AccountType accountType = AccountType.valueOf(columns[0].toUpperCase());
-        String accountNumber = columns[1];
-        CustomerType customerType = CustomerType.valueOf(columns[2].toUpperCase());
-        String customerName = columns[3];
-        int customerAge = parseInt(columns[4], "CustomerAge", line);
-        String customerContact = columns[5];
-        String customerAddress = columns[6];
-        double accountBalance = parseDouble(columns[7], "AccountBalance", line);
-        String accountStatus = columns[8];
-        double monthlyFee = parseDouble(columns[9], "MonthlyFee", line);
-
-        Customer customer = createCustomer(customerType, customerName, customerAge, customerContact, customerAddress);
+    private Account parseAccount(CsvTokenizer fields) {
+        AccountType accountType = fields.nextEnum(ACCOUNT_TYPES, "AccountType");
+        String accountNumber = fields.nextString("AccountNumber");
+        CustomerType customerType = fields.nextEnum(CUSTOMER_TYPES, "CustomerType");
+        String customerName = fields.nextString("CustomerName");
+        int customerAge = fields.nextInt("CustomerAge");
+        String customerContact = fields.nextString("CustomerContact");
+        String customerAddress = fields.nextString("CustomerAddress");
+        Money accountBalance = Money.ofMinor(fields.nextMinorUnits("AccountBalance"));
+        String accountStatus = customers.pool(fields.nextString("AccountStatus"));
+        Money monthlyFee = Money.ofMinor(fields.nextMinorUnits("MonthlyFee"));
+        // Rows written before customer IDs were stored have no CustomerId column
+        String customerId = fields.hasNext() ? fields.nextString("CustomerId") : null;
+
+        Customer customer = customers.register(
+                customerType, customerId, customerName, customerAge, customerContact, customerAddress);
 
         AccountInput input = new AccountInput(
                 accountType, accountNumber, customer, accountBalance, accountStatus, monthlyFee);
@@ -107,32 +118,12 @@ public class FileStorageService implements DataStorageService {
         return createAccount(input);
     }
 
-    private static int parseInt(String value, String fieldName, String line) {
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            throw  new IllegalArgumentException(
-                    "Invalid integer for " + fieldName + ": " + value + "in line: " + line);
-        }
+    static Account createAccount(
+            AccountType type, String number, Customer customer, Money balance, String status, Money monthlyFee) {
+        return createAccount(new AccountInput(type, number, customer, balance, status, monthlyFee));
     }
 
-    private static double parseDouble(String value, String fieldName, String line) {
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            throw  new IllegalArgumentException(
-                    "Invalid double for " + fieldName + ": " + value + "in line: " + line);
-        }
-    }
-
-    private Customer createCustomer(CustomerType type, String name, int age, String contact, String address) {
-        CustomerData data = new CustomerData(name, age, contact, address);
-        Function<CustomerData, Customer> factory = CUSTOMER_FACTORY.get(type);
-        if(factory == null) throw new IllegalArgumentException("Unsupported CustomerType: " + type);
-        return factory.apply(data);
-    }
-
-    private Account createAccount(AccountInput input) {
+    private static Account createAccount(AccountInput input) {
         Function<AccountInput, Account> factory = ACCOUNT_FACTORY.get(input.type());
         if(factory == null) throw new IllegalArgumentException("Unsupported AccountType: " + input.type());
         return factory.apply(input);
@@ -144,58 +135,38 @@ public class FileStorageService implements DataStorageService {
 
         List<String> lines = new ArrayList<>();
         // Provides column structure that would be ignored when reading due to '#'
-        lines.add("#AccountType,AccountNumber,CustomerType,CustomerName,CustomerAge,CustomerContact,CustomerAddress,AccountBalance,AccountStatus,MonthlyFee");
+        lines.add("#AccountType,AccountNumber,CustomerType,CustomerName,CustomerAge,CustomerContact,CustomerAddress,AccountBalance,AccountStatus,MonthlyFee,CustomerId");
 
         accounts.forEach(account -> lines.add(account.toCsv()));
-        Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        // Replaced in one step so a crash never leaves a half-written file
+        AtomicFiles.writeLines(path, lines);
     }
 
     @Override
     public Map<String, List<Transaction>> loadTransactions() throws IOException {
         Path path = Paths.get(this.transactionsFile);
-        Map<String, List<Transaction>> transactions = new HashMap<>();
-
-        if (Files.notExists(path)) return transactions;
-
-        Set<String> seenIds = new HashSet<>();
-        try (Stream<String> lines = Files.lines(path)) {
-            lines.map(String::trim)
-                    .filter(line -> !line.isEmpty())
-                    .filter(line -> !line.startsWith("#"))
-                    .forEach(line -> {
-                        Transaction transaction = parseTransactionLine(line);
-                        // Skip duplicate transactions
-                        if(seenIds.add(transaction.getTransactionId()))
-                            addToTransactions(transactions, transaction);
-                    });
-        }
-        return transactions;
-    }
+        if (Files.notExists(path)) return new HashMap<>();
 
-    private void addToTransactions(Map<String, List<Transaction>> transactions, Transaction transaction) {
-        transactions
-                .computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>())
-                .add(transaction);
+        repairTornLine(path);
+        return transactionLoader.load(path);
     }
 
-    private Transaction parseTransactionLine(String line) {
-        String[] cols = line.split(",", -1);
-        final int EXPECTED = 5;
-        if (cols.length < EXPECTED) {
-            throw new IllegalArgumentException(
-                    "Invalid transaction row (expected " + EXPECTED + " columns): " + line);
-        }
-
-        cols = Arrays.stream(cols).map(String::trim).toArray(String[]::new);
-
-        String txnId = cols[0];
-        TransactionType txnType = TransactionType.valueOf(cols[1].toUpperCase());
-        String accountNumber = cols[2];
-        double amount = parseDouble(cols[3], "amount", line);
-        double balanceAfter = parseDouble(cols[4], "balanceAfter", line);
-        String timestamp = cols[5];
+    static Transaction parseTransactionLine(String line) {
+        return parseTransaction(new CsvTokenizer().reset(line));
+    }
 
-        return new Transaction(txnId, txnType, accountNumber, amount, balanceAfter, timestamp);
+    static Transaction parseTransaction(CsvTokenizer fields) {
+        long transactionNumber = fields.nextPrefixedNumber(Transaction.ID_PREFIX, "transactionId");
+        int idDigits = fields.fieldLength() - Transaction.ID_PREFIX.length();
+        TransactionType txnType = fields.nextEnum(TRANSACTION_TYPES, "transactionType");
+        long accountIndex = fields.nextPrefixedNumber(Transaction.ACCOUNT_PREFIX, "accountNumber");
+        int accountDigits = fields.fieldLength() - Transaction.ACCOUNT_PREFIX.length();
+        long amount = fields.nextMinorUnits("amount");
+        long balanceAfter = fields.nextMinorUnits("balanceAfter");
+        long epochMicros = fields.nextEpochMicros("timestamp");
+
+        return new Transaction(
+                transactionNumber, idDigits, txnType, accountIndex, accountDigits, amount, balanceAfter, epochMicros);
     }
 
     @Override
@@ -203,10 +174,72 @@ public class FileStorageService implements DataStorageService {
         Path path = Paths.get(this.transactionsFile);
 
         List<String> lines = new ArrayList<>();
-        // Provides column structure that would be ignored when reading due to '#'
-        lines.add("#transactionId,transactionType,accountNumber,amount,balanceAfter,timestamp");
+        lines.add(TRANSACTIONS_HEADER);
 
         transactions.forEach(transaction -> lines.add(transaction.toCsv()));
-        Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        AtomicFiles.writeLines(path, lines);
+    }
+
+    /**
+     * Appends the transactions as new lines and syncs the file, writing the
+     * column header first if the file is new.
+     */
+    @Override
+    public void appendTransactions(List<Transaction> transactions) throws IOException {
+        Path path = Paths.get(this.transactionsFile);
+        repairTornLine(path);
+
+        StringBuilder lines = new StringBuilder();
+        if (Files.notExists(path) || Files.size(path) == 0) lines.append(TRANSACTIONS_HEADER).append('\n');
+        transactions.forEach(transaction -> lines.append(transaction.toCsv()).append('\n'));
+
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines.toString());
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Cuts off a final line that was only partially appended when the application
+     * stopped, so it is neither parsed nor continued by the next append. A final line
+     * that is complete but has no line break, as an edited file may end, is kept.
+     */
+    static void repairTornLine(Path path) throws IOException {
+        if (Files.notExists(path)) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long lineStart = size;
+            ByteBuffer previous = ByteBuffer.allocate(1);
+            while (lineStart > 0) {
+                previous.clear();
+                channel.read(previous, lineStart - 1);
+                if (previous.get(0) == '\n') break;
+                lineStart--;
+            }
+            if (lineStart == size) return;
+
+            ByteBuffer tail = ByteBuffer.allocate(Math.toIntExact(size - lineStart));
+            while (tail.hasRemaining()) channel.read(tail, lineStart + tail.position());
+            if (isCompleteLine(new String(tail.array(), StandardCharsets.UTF_8))) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}), size);
+            } else {
+                channel.truncate(lineStart);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static boolean isCompleteLine(String line) {
+        CsvTokenizer fields = new CsvTokenizer().reset(line);
+        if (fields.isSkippable()) return true;
+        try {
+            parseTransaction(fields);
+            return !fields.hasNext();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 }
\ No newline at end of file
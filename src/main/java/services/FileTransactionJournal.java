@@ -0,0 +1,197 @@
+package services;
+
+import interfaces.TransactionJournal;
+import models.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only transaction journal backed by a single binary file.
+ * <p>
+ *  Every record is stored as {@code [length][crc32][payload]} where the payload
+ *  is the csv form of the transaction. The length prefix lets a reader skip from
+ *  record to record and the checksum detects a record that was only partially
+ *  written when the application stopped.
+ * </p>
+ * <p>
+ *  When a snapshot is taken the live file is sealed: it is renamed to a sealed
+ *  segment and appends continue in a fresh file. The sealed segment is kept until
+ *  its records have been folded into the saved history, so replaying always sees
+ *  the sealed records first and the live ones after them.
+ * </p>
+ */
+public class FileTransactionJournal implements TransactionJournal {
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private static final String SEALED_SUFFIX = ".sealed";
+
+    private final Path path;
+    private final Path sealedPath;
+    private FileChannel channel;
+
+    public FileTransactionJournal(String journalFile) {
+        this.path = Paths.get(journalFile);
+        this.sealedPath = Paths.get(journalFile + SEALED_SUFFIX);
+    }
+
+    @Override
+    public synchronized void append(Transaction transaction) throws IOException {
+        appendAll(List.of(transaction));
+    }
+
+    /**
+     * Writes all records with a single write, so a batch costs one system call.
+     */
+    @Override
+    public synchronized void appendAll(List<Transaction> transactions) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(transactions.size());
+        int totalBytes = 0;
+        for (Transaction transaction : transactions) {
+            byte[] payload = transaction.toCsv().getBytes(StandardCharsets.UTF_8);
+            payloads.add(payload);
+            totalBytes += HEADER_BYTES + payload.length;
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(totalBytes);
+        for (byte[] payload : payloads) {
+            records.putInt(payload.length);
+            records.putInt(checksum(payload));
+            records.put(payload);
+        }
+        records.flip();
+
+        FileChannel out = openChannel();
+        while (records.hasRemaining()) {
+            out.write(records);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (channel != null) channel.force(false);
+    }
+
+    /**
+     * Reads every intact record from the sealed segment and the live journal in the
+     * order it was written. Reading stops at the first truncated or corrupted record
+     * since anything after it cannot be trusted, and the live journal is truncated
+     * back to its last intact record so new records are not appended after a torn one.
+     *
+     * @return the journaled transactions, oldest first
+     * @throws IOException if the journal cannot be read or repaired
+     */
+    public List<Transaction> replay() throws IOException {
+        List<Transaction> transactions = readSealed();
+        if (Files.notExists(path)) return transactions;
+
+        long intactBytes = readRecords(path, transactions);
+        if (intactBytes < Files.size(path)) truncate(intactBytes);
+        return transactions;
+    }
+
+    /**
+     * Closes the live journal and renames it to the sealed segment, so records appended
+     * from now on go to a new file. Callers must make sure no appends are in flight.
+     *
+     * @return true if records were sealed, false if the live journal was empty
+     * @throws IllegalStateException if the previous sealed segment has not been dropped yet
+     * @throws IOException if the journal cannot be synced or renamed
+     */
+    public synchronized boolean seal() throws IOException {
+        if (Files.exists(sealedPath)) {
+            throw new IllegalStateException("Sealed journal segment has not been folded yet: " + sealedPath);
+        }
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+        if (Files.notExists(path) || Files.size(path) == 0) return false;
+
+        Files.move(path, sealedPath, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * @return the records of the sealed segment, or an empty list if there is none
+     * @throws IOException if the sealed segment cannot be read
+     */
+    public List<Transaction> readSealed() throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        if (Files.exists(sealedPath)) readRecords(sealedPath, transactions);
+        return transactions;
+    }
+
+    /**
+     * Deletes the sealed segment once its records are part of the saved history.
+     *
+     * @throws IOException if the segment cannot be deleted
+     */
+    public synchronized void dropSealed() throws IOException {
+        Files.deleteIfExists(sealedPath);
+    }
+
+    /**
+     * @return the number of bytes taken by the intact records read
+     */
+    private static long readRecords(Path file, List<Transaction> transactions) throws IOException {
+        long intactBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] payload;
+            while ((payload = readRecord(in)) != null) {
+                transactions.add(FileStorageService.parseTransactionLine(new String(payload, StandardCharsets.UTF_8)));
+                intactBytes += HEADER_BYTES + payload.length;
+            }
+        }
+        return intactBytes;
+    }
+
+    private synchronized void truncate(long size) throws IOException {
+        FileChannel out = openChannel();
+        out.truncate(size);
+        out.force(false);
+    }
+
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int expectedChecksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) return null;
+
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            return checksum(payload) == expectedChecksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
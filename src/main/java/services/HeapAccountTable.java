@@ -0,0 +1,72 @@
+package services;
+
+import models.Account;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps account objects in a concurrent skip list sorted by account number.
+ * Each account reports its balance changes to a shared total.
+ */
+class HeapAccountTable implements AccountTable {
+    private final ConcurrentSkipListMap<String, Account> accounts = new ConcurrentSkipListMap<>(ACCOUNT_NUMBER_ORDER);
+    private final AtomicInteger accountsStored = new AtomicInteger();
+    // Bank-wide balance in cents, updated by each account on every balance change
+    private final LongAdder totalBalanceMinorUnits = new LongAdder();
+
+    @Override
+    public boolean insert(Account account) {
+        if (accounts.putIfAbsent(account.getAccountNumber(), account) != null) return false;
+        accountsStored.incrementAndGet();
+        account.trackBalanceIn(totalBalanceMinorUnits);
+        return true;
+    }
+
+    @Override
+    public Account find(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    @Override
+    public List<Account> page(String afterAccountNumber, int limit) {
+        Collection<Account> remaining = afterAccountNumber == null
+                ? accounts.values()
+                : accounts.tailMap(afterAccountNumber, false).values();
+
+        List<Account> page = new ArrayList<>(Math.min(limit, 64));
+        for (Account account : remaining) {
+            if (page.size() == limit) break;
+            page.add(account);
+        }
+        return page;
+    }
+
+    @Override
+    public List<Account> all() {
+        return List.copyOf(accounts.values());
+    }
+
+    @Override
+    public List<Account> changed() {
+        List<Account> changed = new ArrayList<>();
+        for (Account account : accounts.values()) {
+            if (account.isDirty()) changed.add(account);
+        }
+        return changed;
+    }
+
+    @Override
+    public int size() {
+        return accountsStored.get();
+    }
+
+    @Override
+    public long totalBalanceMinorUnits() {
+        return totalBalanceMinorUnits.sum();
+    }
+}
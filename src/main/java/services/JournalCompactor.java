@@ -0,0 +1,137 @@
+package services;
+
+import interfaces.DataStorageService;
+import interfaces.TransactionJournal;
+import models.Account;
+import models.Transaction;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically snapshots the accounts and folds the journal written before the
+ * snapshot into the saved transaction history.
+ * <p>
+ *  A compaction stops balance updates only for as long as it takes to seal the
+ *  journal, which cuts it at a point no transaction is halfway through. The accounts
+ *  changed since the last snapshot are then copied one at a time under their own lock,
+ *  the journal is synced so every record behind a copied balance is durable, and only
+ *  the copies are saved. The snapshot therefore holds every balance the sealed records
+ *  left behind, possibly along with later ones that the live journal also holds, and
+ *  replaying the live journal over it ends at the same balances. The sealed records
+ *  are then appended to the saved history and the sealed segment is dropped. The live
+ *  journal therefore only holds what was written since the last snapshot, which bounds
+ *  the work replayed on startup by the snapshot interval rather than by the size of
+ *  the history.
+ * </p>
+ * <p>
+ *  Every step can be repeated safely: replaying a sealed segment left behind by a
+ *  crash reproduces the snapshot balances, and transactions already appended to the
+ *  history are skipped by their ID when loading.
+ * </p>
+ */
+public class JournalCompactor {
+    private final BankingService bankingService;
+    private final DataStorageService storage;
+    private final FileTransactionJournal journal;
+    private final TransactionJournal appender;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            task -> Thread.ofPlatform().name("journal-compactor").daemon().unstarted(task));
+    private volatile IOException lastFailure;
+
+    /**
+     * @param bankingService the service whose accounts are snapshotted
+     * @param storage storage for the account snapshot and the saved transaction history
+     * @param journal the journal file that is sealed at every snapshot
+     * @param appender the journal confirmed transactions are appended through
+     */
+    public JournalCompactor(
+            BankingService bankingService,
+            DataStorageService storage,
+            FileTransactionJournal journal,
+            TransactionJournal appender
+    ) {
+        this.bankingService = bankingService;
+        this.storage = storage;
+        this.journal = journal;
+        this.appender = appender;
+    }
+
+    /**
+     * Compacts in the background every interval until {@link #shutdown()} is called.
+     */
+    public void start(long interval, TimeUnit unit) {
+        scheduler.scheduleWithFixedDelay(this::compactInBackground, interval, interval, unit);
+    }
+
+    /**
+     * Takes a snapshot of all accounts and folds the journal written before it into the saved history.
+     *
+     * @throws IOException if the snapshot or the history cannot be written
+     */
+    public synchronized void compact() throws IOException {
+        // A sealed segment left by an interrupted compaction is folded before sealing again
+        foldSealedSegment();
+
+        // Syncs outside the locks, so sealing only has the last few records left to sync
+        appender.flush();
+        boolean sealed;
+        try {
+            sealed = bankingService.withAllAccountsLocked(journal::seal);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not seal the journal", e);
+        }
+
+        List<Account> changed = bankingService.copyChangedAccounts();
+        try {
+            appender.flush();
+            storage.saveChangedAccounts(changed, bankingService::viewAllAccounts);
+        } catch (IOException | RuntimeException e) {
+            bankingService.markUnsaved(changed);
+            throw e;
+        }
+
+        if (sealed) foldSealedSegment();
+    }
+
+    /**
+     * Stops scheduling compactions and waits for a running one to finish.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS))
+                scheduler.shutdownNow();
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the error of the last background compaction that failed, or null if none did
+     */
+    public IOException getLastFailure() {
+        return lastFailure;
+    }
+
+    private void foldSealedSegment() throws IOException {
+        List<Transaction> sealed = journal.readSealed();
+        if (!sealed.isEmpty()) storage.appendTransactions(sealed);
+        journal.dropSealed();
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+            lastFailure = null;
+        } catch (IOException | RuntimeException e) {
+            // Keeps the schedule alive, the journal still holds everything for the next attempt
+            lastFailure = e instanceof IOException io ? io : new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package services;
+
+import interfaces.DataStorageService;
+import interfaces.TransactionJournal;
+import models.Account;
+import models.Money;
+import models.Transaction;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Storage service that keeps the transaction history in an append-only journal.
+ * <p>
+ *  Accounts and any previously saved transaction file are handled by the wrapped
+ *  storage service. New transactions are appended to the journal as they are
+ *  confirmed, so saving only has to sync the journal instead of rewriting the
+ *  whole history. On startup the journal is replayed on top of the saved history.
+ * </p>
+ * <p>
+ *  The journal only holds the tail written since the last account snapshot, since a
+ *  {@link JournalCompactor} folds older records into the saved history. Replaying the
+ *  tail over the snapshot restores balances that changed after it was taken.
+ * </p>
+ */
+public class JournaledStorageService implements DataStorageService {
+
+    private final DataStorageService delegate;
+    private final FileTransactionJournal journal;
+    private final TransactionJournal appender;
+
+    public JournaledStorageService(DataStorageService delegate, FileTransactionJournal journal) {
+        this(delegate, journal, journal);
+    }
+
+    /**
+     * @param delegate storage for accounts and the saved transaction history
+     * @param journal the journal file replayed on startup
+     * @param appender the journal confirmed transactions are appended through, such as a
+     *                 {@link WriteBehindJournal} writing to the journal file
+     */
+    public JournaledStorageService(
+            DataStorageService delegate,
+            FileTransactionJournal journal,
+            TransactionJournal appender
+    ) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.appender = appender;
+    }
+
+    @Override
+    public Map<String, Account> loadAccounts() throws IOException {
+        return delegate.loadAccounts();
+    }
+
+    @Override
+    public void saveAccounts(List<Account> accounts) throws IOException {
+        delegate.saveAccounts(accounts);
+    }
+
+    @Override
+    public void saveChangedAccounts(List<Account> changed, Supplier<List<Account>> accounts) throws IOException {
+        delegate.saveChangedAccounts(changed, accounts);
+    }
+
+    @Override
+    public Map<String, List<Transaction>> loadTransactions() throws IOException {
+        Map<String, List<Transaction>> transactions = delegate.loadTransactions();
+
+        Set<Long> seenIds = new HashSet<>();
+        transactions.values().forEach(list -> list.forEach(t -> seenIds.add(t.getTransactionNumber())));
+
+        for (Transaction transaction : journal.replay()) {
+            // Skip transactions that were already part of the saved history
+            if (seenIds.add(transaction.getTransactionNumber())) {
+                transactions
+                        .computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>())
+                        .add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Every confirmed transaction is already in the journal, so saving
+     * only needs to make the appended records durable.
+     */
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws IOException {
+        appender.flush();
+    }
+
+    @Override
+    public void saveTransactions(Supplier<List<Transaction>> transactions) throws IOException {
+        appender.flush();
+    }
+
+    @Override
+    public void appendTransactions(List<Transaction> transactions) throws IOException {
+        delegate.appendTransactions(transactions);
+    }
+
+    /**
+     * Brings the balances of accounts loaded from a snapshot up to date with the
+     * journal tail. {@link BankingService#confirmTransaction} reads the balance after a
+     * transaction and journals it while holding the account lock, so the records of an
+     * account are journaled in the order they were applied and the last one carries
+     * its latest balance.
+     *
+     * @param accounts the accounts loaded from the snapshot, by account number
+     * @return the number of accounts whose balance was restored from the journal
+     * @throws IOException if the journal cannot be read
+     */
+    public int recoverBalances(Map<String, Account> accounts) throws IOException {
+        Map<String, Money> latestBalances = new HashMap<>();
+        for (Transaction transaction : journal.replay()) {
+            latestBalances.put(transaction.getAccountNumber(), transaction.getBalanceAfter());
+        }
+
+        int recovered = 0;
+        for (Map.Entry<String, Money> entry : latestBalances.entrySet()) {
+            Account account = accounts.get(entry.getKey());
+            if (account != null && !account.getBalance().equals(entry.getValue())) {
+                account.setBalance(entry.getValue());
+                recovered++;
+            }
+        }
+        return recovered;
+    }
+}
@@ -0,0 +1,229 @@
+package services;
+
+import interfaces.BalanceStore;
+import models.Account;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps accounts as fixed-width {@link AccountRecord}s in direct memory, so they add
+ * nothing for the garbage collector to trace however many accounts are stored.
+ * <p>
+ *  Each account owns a slot. Only the index from account number to slot lives on the
+ *  heap. Lookups decode a short-lived {@link Account} whose balance and monthly fee stay
+ *  bound to the slot, so it is only a view that can be dropped right after use. The account number is the index key and the customer is found in the registry
+ *  by the number stored in the record, without a lock, so a lookup builds no strings
+ *  for either. Every copy of an account reads and updates the same balance, atomically,
+ *  through a VarHandle view of the record. The unsaved-changes marks of the slots are
+ *  kept as one bit per slot next to the records for the same reason.
+ * </p>
+ * <p>
+ *  Every field that can change after an account is stored lives in the slot, so a
+ *  change made through any copy is seen by all of them and by the next save.
+ * </p>
+ */
+class OffHeapAccountTable implements AccountTable, BalanceStore {
+    private static final int SLOTS_PER_CHUNK_SHIFT = 14;
+    private static final int SLOTS_PER_CHUNK = 1 << SLOTS_PER_CHUNK_SHIFT;
+    private static final int SLOT_MASK = SLOTS_PER_CHUNK - 1;
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final CustomerRegistry customers;
+    private final ConcurrentSkipListMap<String, Integer> slots = new ConcurrentSkipListMap<>(ACCOUNT_NUMBER_ORDER);
+    private final LongAdder totalBalanceMinorUnits = new LongAdder();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    // One bit per slot of the matching chunk, set while the slot has unsaved changes
+    private volatile long[][] dirtyBits = new long[0][];
+    private int nextSlot;
+
+    /**
+     * @param customers registry the decoded accounts take their customers from
+     */
+    OffHeapAccountTable(CustomerRegistry customers) {
+        this.customers = customers;
+    }
+
+    @Override
+    public boolean insert(Account account) {
+        int slot;
+        synchronized (this) {
+            if (slots.containsKey(account.getAccountNumber())) return false;
+
+            slot = nextSlot++;
+            // Written with the registered customer, so lookups can find it by its number
+            AccountRecord.encode(account, customers.register(account.getCustomer()), chunkOf(slot), offsetOf(slot));
+            totalBalanceMinorUnits.add(account.getBalanceMinorUnits());
+            slots.put(account.getAccountNumber(), slot);
+        }
+        boolean dirty = account.isDirty();
+        account.bindBalance(this, slot);
+        if (dirty) markDirty(slot);
+        return true;
+    }
+
+    private ByteBuffer chunkOf(int slot) {
+        int chunkIndex = slot >>> SLOTS_PER_CHUNK_SHIFT;
+        ByteBuffer[] current = chunks;
+        if (chunkIndex < current.length) return current[chunkIndex];
+
+        // Only reached from insert, which holds the table lock
+        long[][] grownBits = Arrays.copyOf(dirtyBits, chunkIndex + 1);
+        grownBits[chunkIndex] = new long[SLOTS_PER_CHUNK / Long.SIZE];
+        dirtyBits = grownBits;
+
+        ByteBuffer[] grown = Arrays.copyOf(current, chunkIndex + 1);
+        // Aligned so balances can be updated with compare-and-set
+        grown[chunkIndex] = ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * AccountRecord.BYTES + Long.BYTES)
+                .alignedSlice(Long.BYTES);
+        chunks = grown;
+        return grown[chunkIndex];
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot & SLOT_MASK) * AccountRecord.BYTES;
+    }
+
+    private Account decode(String accountNumber, int slot) {
+        Account account = AccountRecord.decodeRegistered(
+                chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], offsetOf(slot), customers, accountNumber);
+        account.bindBalance(this, slot);
+        return account;
+    }
+
+    @Override
+    public Account find(String accountNumber) {
+        Integer slot = slots.get(accountNumber);
+        return slot == null ? null : decode(accountNumber, slot);
+    }
+
+    @Override
+    public List<Account> page(String afterAccountNumber, int limit) {
+        Iterable<Map.Entry<String, Integer>> remaining = afterAccountNumber == null
+                ? slots.entrySet()
+                : slots.tailMap(afterAccountNumber, false).entrySet();
+
+        List<Account> page = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, Integer> entry : remaining) {
+            if (page.size() == limit) break;
+            page.add(decode(entry.getKey(), entry.getValue()));
+        }
+        return page;
+    }
+
+    @Override
+    public List<Account> all() {
+        return slots.entrySet().stream().map(entry -> decode(entry.getKey(), entry.getValue())).toList();
+    }
+
+    /**
+     * Walks the unsaved-changes bits, so only the marked slots are decoded.
+     */
+    @Override
+    public List<Account> changed() {
+        List<Account> changed = new ArrayList<>();
+        long[][] bits = dirtyBits;
+        for (int chunk = 0; chunk < bits.length; chunk++) {
+            for (int word = 0; word < bits[chunk].length; word++) {
+                long marked = (long) BITS.getVolatile(bits[chunk], word);
+                while (marked != 0) {
+                    int slot = (chunk << SLOTS_PER_CHUNK_SHIFT) + word * Long.SIZE + Long.numberOfTrailingZeros(marked);
+                    marked &= marked - 1;
+                    String accountNumber = AccountRecord.readString(
+                            chunks[chunk], offsetOf(slot) + AccountRecord.ACCOUNT_NUMBER);
+                    changed.add(decode(accountNumber, slot));
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public long totalBalanceMinorUnits() {
+        return totalBalanceMinorUnits.sum();
+    }
+
+    @Override
+    public long balanceOf(int slot) {
+        return (long) LONG.getVolatile(chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], balanceOffset(slot));
+    }
+
+    @Override
+    public void addToBalance(int slot, long amountMinorUnits) {
+        LONG.getAndAdd(chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], balanceOffset(slot), amountMinorUnits);
+        totalBalanceMinorUnits.add(amountMinorUnits);
+    }
+
+    @Override
+    public boolean tryDebit(int slot, long amountMinorUnits, long floorMinorUnits) {
+        ByteBuffer chunk = chunks[slot >>> SLOTS_PER_CHUNK_SHIFT];
+        int offset = balanceOffset(slot);
+
+        long current;
+        long updated;
+        do {
+            current = (long) LONG.getVolatile(chunk, offset);
+            updated = current - amountMinorUnits;
+            if (updated < floorMinorUnits) return false;
+        } while (!LONG.compareAndSet(chunk, offset, current, updated));
+        totalBalanceMinorUnits.add(-amountMinorUnits);
+        return true;
+    }
+
+    @Override
+    public void setBalance(int slot, long balanceMinorUnits) {
+        long previous = (long) LONG.getAndSet(chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], balanceOffset(slot), balanceMinorUnits);
+        totalBalanceMinorUnits.add(balanceMinorUnits - previous);
+    }
+
+    @Override
+    public long monthlyFeeOf(int slot) {
+        return (long) LONG.getVolatile(chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], offsetOf(slot) + AccountRecord.MONTHLY_FEE);
+    }
+
+    @Override
+    public void setMonthlyFee(int slot, long monthlyFeeMinorUnits) {
+        LONG.setVolatile(chunks[slot >>> SLOTS_PER_CHUNK_SHIFT], offsetOf(slot) + AccountRecord.MONTHLY_FEE,
+                monthlyFeeMinorUnits);
+    }
+
+    @Override
+    public void markDirty(int slot) {
+        long[] bits = dirtyBits[slot >>> SLOTS_PER_CHUNK_SHIFT];
+        int word = (slot & SLOT_MASK) >>> 6;
+        long bit = 1L << slot;
+        // Only written when the bit changes so updates do not keep invalidating the word
+        if (((long) BITS.getVolatile(bits, word) & bit) == 0) BITS.getAndBitwiseOr(bits, word, bit);
+    }
+
+    @Override
+    public boolean clearDirty(int slot) {
+        long bit = 1L << slot;
+        long previous = (long) BITS.getAndBitwiseAnd(dirtyBits[slot >>> SLOTS_PER_CHUNK_SHIFT], (slot & SLOT_MASK) >>> 6, ~bit);
+        return (previous & bit) != 0;
+    }
+
+    @Override
+    public boolean isDirty(int slot) {
+        long word = (long) BITS.getVolatile(dirtyBits[slot >>> SLOTS_PER_CHUNK_SHIFT], (slot & SLOT_MASK) >>> 6);
+        return (word & (1L << slot)) != 0;
+    }
+
+    private static int balanceOffset(int slot) {
+        return offsetOf(slot) + AccountRecord.BALANCE;
+    }
+}
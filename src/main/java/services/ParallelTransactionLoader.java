@@ -0,0 +1,206 @@
+package services;
+
+import models.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Loads a csv transaction file by splitting it into newline-aligned byte ranges
+ * and parsing the ranges in parallel on a {@link ForkJoinPool}.
+ * <p>
+ *  Chunk results are merged in file order, so the per-account lists and the
+ *  choice of which duplicate transaction is kept are the same as a sequential read.
+ * </p>
+ * <p>
+ *  Each chunk is tokenized straight from its memory-mapped bytes, never copied into a
+ *  character buffer, so loading needs no heap in proportion to the chunk size however
+ *  many chunks are parsed at once.
+ * </p>
+ */
+class ParallelTransactionLoader {
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final Function<CsvTokenizer, Transaction> parser;
+
+    ParallelTransactionLoader(ForkJoinPool pool, Function<CsvTokenizer, Transaction> parser) {
+        this.pool = pool;
+        this.parser = parser;
+    }
+
+    /**
+     * Parses every transaction in the file and groups them by account number.
+     * Transactions whose id was already seen earlier in the file are skipped.
+     *
+     * @param path the csv file to load
+     * @return a map of account numbers to their transactions in file order
+     * @throws IOException if the file cannot be read
+     */
+    Map<String, List<Transaction>> load(Path path) throws IOException {
+        List<List<Transaction>> chunks;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<ChunkTask> tasks = new ArrayList<>();
+            long[] boundaries = splitOnNewlines(channel);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                tasks.add(new ChunkTask(channel, boundaries[i], boundaries[i + 1], parser));
+            }
+
+            try {
+                chunks = pool.invoke(new RecursiveTask<>() {
+                    @Override
+                    protected List<List<Transaction>> compute() {
+                        return ForkJoinTask.invokeAll(tasks).stream().map(ForkJoinTask::join).toList();
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return merge(chunks);
+    }
+
+    private static Map<String, List<Transaction>> merge(List<List<Transaction>> chunks) {
+        Map<String, List<Transaction>> transactions = new HashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+
+        for (List<Transaction> chunk : chunks) {
+            for (Transaction transaction : chunk) {
+                // Skip duplicate transactions, keeping the first one in file order
+                if (seenIds.add(transaction.getTransactionNumber())) {
+                    transactions
+                            .computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>())
+                            .add(transaction);
+                }
+            }
+        }
+        return transactions;
+    }
+
+    private long[] splitOnNewlines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = size / ((long) pool.getParallelism() * CHUNKS_PER_WORKER);
+        long chunkBytes = Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, target));
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long start = 0;
+        while (size - start > chunkBytes) {
+            long next = nextLineStart(channel, start + chunkBytes, size);
+            if (next >= size) break;
+            boundaries.add(next);
+            start = next;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<List<Transaction>> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final Function<CsvTokenizer, Transaction> parser;
+
+        private ChunkTask(FileChannel channel, long start, long end, Function<CsvTokenizer, Transaction> parser) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<Transaction> compute() {
+            try {
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                return parseLines(new ByteChars(bytes, 0, bytes.limit()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<Transaction> parseLines(CharSequence chars) {
+            List<Transaction> transactions = new ArrayList<>();
+            // Lines are parsed in place, one reused tokenizer per chunk
+            CsvTokenizer fields = new CsvTokenizer();
+            int lineStart = 0;
+            int length = chars.length();
+
+            for (int i = 0; i <= length; i++) {
+                if (i < length && chars.charAt(i) != '\n') continue;
+
+                fields.reset(chars, lineStart, i);
+                lineStart = i + 1;
+                if (fields.isSkippable()) continue;
+
+                transactions.add(parser.apply(fields));
+            }
+            return transactions;
+        }
+    }
+
+    /**
+     * Reads bytes as characters without decoding them first. The delimiters, digits and
+     * timestamps the tokenizer parses in place are all ASCII, where a byte is its own
+     * character. Fields kept as text are decoded as UTF-8 when their string is built.
+     */
+    private static final class ByteChars implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        private ByteChars(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(offset + index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteChars(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[length];
+            bytes.get(offset, copy);
+            return new String(copy, StandardCharsets.UTF_8);
+        }
+    }
+}
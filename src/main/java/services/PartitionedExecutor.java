@@ -0,0 +1,75 @@
+package services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes tasks on a fixed number of single-threaded lanes, choosing the lane
+ * from a partition key such as an account number.
+ * <p>
+ *  Every key always maps to the same lane and each lane drains its own queue in
+ *  order, so tasks for one account run one at a time in submission order while
+ *  tasks for accounts on other lanes run in parallel. Lanes are selected with the
+ *  same hash as the {@link AccountLockManager} stripes, so with a lane count that
+ *  divides the stripe count two lanes never compete for the same account lock.
+ * </p>
+ */
+public class PartitionedExecutor {
+    private final ExecutorService[] lanes;
+    private final int mask;
+
+    /**
+     * @param laneCount the minimum number of lanes, rounded up to a power of two
+     */
+    public PartitionedExecutor(int laneCount) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("Lane count must be positive");
+        }
+
+        int size = laneCount == 1 ? 1 : Integer.highestOneBit(laneCount - 1) << 1;
+        this.lanes = new ExecutorService[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    /**
+     * Queues a task on the lane owning the given key.
+     *
+     * @param partitionKey the key that decides the lane, e.g. an account number
+     * @param task the task to run
+     * @return a future completing when the task has run
+     */
+    public Future<?> submit(String partitionKey, Runnable task) {
+        return lanes[AccountLockManager.spread(partitionKey) & mask].submit(task);
+    }
+
+    public void shutdown() {
+        for (ExecutorService lane : lanes) lane.shutdown();
+    }
+
+    public void shutdownNow() {
+        for (ExecutorService lane : lanes) lane.shutdownNow();
+    }
+
+    /**
+     * Waits for every lane to finish its queued tasks after {@link #shutdown()}.
+     *
+     * @return true if all lanes terminated before the timeout elapsed
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService lane : lanes) {
+            long remaining = deadline - System.nanoTime();
+            if (!lane.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) return false;
+        }
+        return true;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+}
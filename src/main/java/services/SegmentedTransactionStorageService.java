@@ -0,0 +1,572 @@
+package services;
+
+import interfaces.DataStorageService;
+import interfaces.TransactionArchive;
+import models.Account;
+import models.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Storage service that keeps the transaction history in daily segment files.
+ * <p>
+ *  Transactions are appended to a csv segment for the UTC day they happened on, and
+ *  a segment rolls over to the next one once it holds the configured number of rows.
+ *  Every segment ends with a footer recording its row count and its time, account and
+ *  ID ranges. The footer is a # comment, so a segment is still a plain transactions
+ *  csv. Footers are read once into an index, so range queries, and loading only the
+ *  recent history at startup, never open segments that cannot hold a match.
+ * </p>
+ * <p>
+ *  Segments of past days no longer change and can be compressed one at a time. A
+ *  history saved as a single file by older versions is moved into segments the first
+ *  time it is loaded. Accounts are handled by the wrapped storage service.
+ * </p>
+ */
+public class SegmentedTransactionStorageService implements DataStorageService, TransactionArchive {
+    private static final String SEGMENT_PREFIX = "transactions-";
+    private static final String SEGMENT_SUFFIX = ".csv";
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final Pattern SEGMENT_NAME =
+            Pattern.compile("transactions-(\\d{4}-\\d{2}-\\d{2})-(\\d+)\\.csv(\\.gz)?");
+    private static final Comparator<Segment> SEGMENT_ORDER =
+            Comparator.comparing((Segment segment) -> segment.day).thenComparingInt(segment -> segment.sequence);
+    private static final String FOOTER_MARKER = "#segment";
+    private static final int MAX_FOOTER_BYTES = 512;
+    private static final int COMPRESSION_BUFFER_BYTES = 64 * 1024;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    private final DataStorageService delegate;
+    private final Path directory;
+    private final int maxRowsPerSegment;
+    private final int loadWindowDays;
+    private final ParallelTransactionLoader loader =
+            new ParallelTransactionLoader(ForkJoinPool.commonPool(), FileStorageService::parseTransaction);
+    // Read on first use, in the order the segments were written
+    private List<Segment> segments;
+
+    /**
+     * The range of the transactions in a segment, as written in its footer.
+     */
+    private record Summary(
+            int rows, long minMicros, long maxMicros, String firstAccount, String lastAccount, long minId, long maxId) {
+
+        static Summary of(Transaction transaction) {
+            return new Summary(1, transaction.getEpochMicros(), transaction.getEpochMicros(),
+                    transaction.getAccountNumber(), transaction.getAccountNumber(),
+                    transaction.getTransactionNumber(), transaction.getTransactionNumber());
+        }
+
+        static Summary of(List<Transaction> transactions) {
+            Summary summary = of(transactions.getFirst());
+            for (int i = 1; i < transactions.size(); i++) summary = summary.plus(of(transactions.get(i)));
+            return summary;
+        }
+
+        Summary plus(Summary other) {
+            return new Summary(
+                    rows + other.rows,
+                    Math.min(minMicros, other.minMicros),
+                    Math.max(maxMicros, other.maxMicros),
+                    AccountTable.ACCOUNT_NUMBER_ORDER.compare(firstAccount, other.firstAccount) <= 0
+                            ? firstAccount : other.firstAccount,
+                    AccountTable.ACCOUNT_NUMBER_ORDER.compare(lastAccount, other.lastAccount) >= 0
+                            ? lastAccount : other.lastAccount,
+                    Math.min(minId, other.minId),
+                    Math.max(maxId, other.maxId));
+        }
+
+        boolean overlaps(long fromMicros, long toMicros) {
+            return minMicros < toMicros && maxMicros >= fromMicros;
+        }
+
+        boolean mayContain(String accountNumber) {
+            return AccountTable.ACCOUNT_NUMBER_ORDER.compare(firstAccount, accountNumber) <= 0
+                    && AccountTable.ACCOUNT_NUMBER_ORDER.compare(accountNumber, lastAccount) <= 0;
+        }
+
+        String toLine() {
+            return String.join(",", FOOTER_MARKER, Integer.toString(rows),
+                    Long.toString(minMicros), Long.toString(maxMicros), firstAccount, lastAccount,
+                    Long.toString(minId), Long.toString(maxId));
+        }
+
+        /**
+         * @return the summary written in the line, or null if the line is not an intact footer
+         */
+        static Summary parse(String line) {
+            CsvTokenizer fields = new CsvTokenizer().reset(line);
+            try {
+                if (!fields.nextString("marker").equals(FOOTER_MARKER)) return null;
+                Summary summary = new Summary(fields.nextInt("rows"),
+                        Long.parseLong(fields.nextString("minMicros")),
+                        Long.parseLong(fields.nextString("maxMicros")),
+                        fields.nextString("firstAccount"), fields.nextString("lastAccount"),
+                        Long.parseLong(fields.nextString("minId")),
+                        Long.parseLong(fields.nextString("maxId")));
+                return fields.hasNext() ? null : summary;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Segment {
+        final LocalDate day;
+        final int sequence;
+        Path path;
+        boolean compressed;
+        // Null until the first row is written
+        Summary summary;
+        // Where the footer starts, and the next rows are written
+        long footerOffset;
+        // Set when the rows are in memory, either loaded at startup or appended since
+        boolean loaded;
+
+        Segment(Path path, LocalDate day, int sequence, boolean compressed) {
+            this.path = path;
+            this.day = day;
+            this.sequence = sequence;
+            this.compressed = compressed;
+        }
+
+        int rows() {
+            return summary == null ? 0 : summary.rows();
+        }
+    }
+
+    /**
+     * @param delegate storage for accounts and for a history saved as a single file
+     * @param segmentDirectory the directory holding the segment files
+     * @param maxRowsPerSegment how many rows a segment takes before the next one is started
+     * @param loadWindowDays how many days of history are loaded at startup, 0 to load all of it
+     */
+    public SegmentedTransactionStorageService(
+            DataStorageService delegate,
+            String segmentDirectory,
+            int maxRowsPerSegment,
+            int loadWindowDays
+    ) {
+        if (maxRowsPerSegment <= 0 || loadWindowDays < 0) {
+            throw new IllegalArgumentException("Segment size must be positive and the load window not negative");
+        }
+        this.delegate = delegate;
+        this.directory = Paths.get(segmentDirectory);
+        this.maxRowsPerSegment = maxRowsPerSegment;
+        this.loadWindowDays = loadWindowDays;
+    }
+
+    @Override
+    public Map<String, Account> loadAccounts() throws IOException {
+        return delegate.loadAccounts();
+    }
+
+    @Override
+    public void saveAccounts(List<Account> accounts) throws IOException {
+        delegate.saveAccounts(accounts);
+    }
+
+    /**
+     * Loads the transactions of the segments inside the load window. Only the footers
+     * of older segments are read.
+     */
+    @Override
+    public synchronized Map<String, List<Transaction>> loadTransactions() throws IOException {
+        moveFlatHistoryIntoSegments();
+
+        long cutoffMicros = loadWindowDays == 0
+                ? Long.MIN_VALUE
+                : Transaction.toEpochMicros(Instant.now()) - loadWindowDays * MICROS_PER_DAY;
+        Predicate<Segment> inWindow = segment -> segment.summary.maxMicros() >= cutoffMicros;
+        index().forEach(segment -> segment.loaded = inWindow.test(segment));
+        return read(inWindow, transaction -> true);
+    }
+
+    /**
+     * Replaces the saved history. The transactions are written through the wrapped
+     * storage and moved back into segments the next time the history is loaded.
+     */
+    @Override
+    public synchronized void saveTransactions(List<Transaction> transactions) throws IOException {
+        delegate.saveTransactions(transactions);
+        // Any copies left by a crash before this point are skipped by their ID when loading
+        for (Segment segment : index()) Files.delete(segment.path);
+        segments.clear();
+    }
+
+    /**
+     * Appends each transaction to the segment of the day it happened on, starting new
+     * segments as they fill up, and syncs the segments written to.
+     */
+    @Override
+    public synchronized void appendTransactions(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) return;
+        index();
+        Files.createDirectories(directory);
+
+        // Grouped by day, keeping the order of the transactions within a day
+        Map<LocalDate, List<Transaction>> byDay = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            byDay.computeIfAbsent(dayOf(transaction.getEpochMicros()), k -> new ArrayList<>()).add(transaction);
+        }
+
+        for (Map.Entry<LocalDate, List<Transaction>> day : byDay.entrySet()) {
+            List<Transaction> rows = day.getValue();
+            int written = 0;
+            while (written < rows.size()) {
+                Segment segment = writableSegment(day.getKey());
+                int count = Math.min(rows.size() - written, maxRowsPerSegment - segment.rows());
+                appendRows(segment, rows.subList(written, written + count));
+                written += count;
+            }
+        }
+    }
+
+    /**
+     * Reads the transactions that happened from the first instant up to, but excluding,
+     * the second, opening only the segments whose time range overlaps it.
+     *
+     * @return the matching transactions in the order they were written
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<Transaction> loadTransactionsBetween(Instant from, Instant to) throws IOException {
+        return readBetween(segment -> true, from, to);
+    }
+
+    /**
+     * Reads the whole history of an account, opening only the segments whose account
+     * range includes it.
+     *
+     * @return the transactions of the account in the order they were written
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<Transaction> loadAccountTransactions(String accountNumber) throws IOException {
+        return readAccount(segment -> true, accountNumber);
+    }
+
+    /**
+     * Reads the matching transactions of the segments {@link #loadTransactions()} left out.
+     */
+    @Override
+    public synchronized List<Transaction> loadArchivedTransactionsBetween(Instant from, Instant to)
+            throws IOException {
+        return readBetween(segment -> !segment.loaded, from, to);
+    }
+
+    /**
+     * Reads the account's transactions of the segments {@link #loadTransactions()} left out.
+     */
+    @Override
+    public synchronized List<Transaction> loadArchivedAccountTransactions(String accountNumber) throws IOException {
+        return readAccount(segment -> !segment.loaded, accountNumber);
+    }
+
+    /**
+     * @return the highest transaction number stored in any segment, including those
+     *         outside the load window, or 0 if there are none
+     * @throws IOException if the segment index cannot be read
+     */
+    public synchronized long getMaxTransactionNumber() throws IOException {
+        return index().stream().mapToLong(segment -> segment.summary.maxId()).max().orElse(0);
+    }
+
+    /**
+     * Compresses the segments of the days before the given one. Each segment is replaced
+     * by its compressed copy on its own and stays readable and queryable.
+     *
+     * @return the number of segments compressed
+     * @throws IOException if a segment cannot be compressed
+     */
+    public synchronized int compressSegmentsBefore(LocalDate day) throws IOException {
+        int compressed = 0;
+        for (Segment segment : index()) {
+            if (segment.compressed || !segment.day.isBefore(day)) continue;
+
+            Path target = segment.path.resolveSibling(segment.path.getFileName() + COMPRESSED_SUFFIX);
+            AtomicFiles.write(target, channel -> {
+                GZIPOutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel), COMPRESSION_BUFFER_BYTES);
+                // The summary goes first so it is read without decompressing the rows
+                out.write((segment.summary.toLine() + '\n').getBytes(StandardCharsets.UTF_8));
+                try (FileChannel in = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    WritableByteChannel sink = Channels.newChannel(out);
+                    long position = 0;
+                    while (position < segment.footerOffset) {
+                        position += in.transferTo(position, segment.footerOffset - position, sink);
+                    }
+                }
+                // Finished rather than closed, closing would close the channel before it is synced
+                out.finish();
+            });
+            Files.delete(segment.path);
+            segment.path = target;
+            segment.compressed = true;
+            compressed++;
+        }
+        return compressed;
+    }
+
+    private void moveFlatHistoryIntoSegments() throws IOException {
+        Map<String, List<Transaction>> flat = delegate.loadTransactions();
+        if (flat.isEmpty()) return;
+
+        List<Transaction> transactions = new ArrayList<>();
+        flat.values().forEach(transactions::addAll);
+        appendTransactions(transactions);
+        // Cleared once the segments are synced, a crash in between leaves copies that are skipped by ID
+        delegate.saveTransactions(List.of());
+    }
+
+    private List<Transaction> readBetween(Predicate<Segment> scope, Instant from, Instant to) throws IOException {
+        long fromMicros = Transaction.toEpochMicros(from);
+        long toMicros = Transaction.toEpochMicros(to);
+        List<Transaction> matches = new ArrayList<>();
+        read(segment -> scope.test(segment) && segment.summary.overlaps(fromMicros, toMicros),
+                transaction -> transaction.getEpochMicros() >= fromMicros && transaction.getEpochMicros() < toMicros)
+                .values().forEach(matches::addAll);
+        return matches;
+    }
+
+    private List<Transaction> readAccount(Predicate<Segment> scope, String accountNumber) throws IOException {
+        return read(segment -> scope.test(segment) && segment.summary.mayContain(accountNumber),
+                transaction -> transaction.getAccountNumber().equals(accountNumber))
+                .getOrDefault(accountNumber, new ArrayList<>());
+    }
+
+    private Map<String, List<Transaction>> read(Predicate<Segment> segmentFilter, Predicate<Transaction> filter)
+            throws IOException {
+        Map<String, List<Transaction>> transactions = new HashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (Segment segment : index()) {
+            if (!segmentFilter.test(segment)) continue;
+
+            for (List<Transaction> history : readSegment(segment).values()) {
+                for (Transaction transaction : history) {
+                    // A segment written again after a crash repeats transactions already read
+                    if (filter.test(transaction) && seenIds.add(transaction.getTransactionNumber())) {
+                        transactions
+                                .computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>())
+                                .add(transaction);
+                    }
+                }
+            }
+        }
+        return transactions;
+    }
+
+    private Map<String, List<Transaction>> readSegment(Segment segment) throws IOException {
+        if (!segment.compressed) return loader.load(segment.path);
+
+        Map<String, List<Transaction>> transactions = new HashMap<>();
+        CsvTokenizer fields = new CsvTokenizer();
+        try (BufferedReader reader = openCompressed(segment.path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (fields.reset(line).isSkippable()) continue;
+
+                Transaction transaction = FileStorageService.parseTransaction(fields);
+                transactions.computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>()).add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    private Segment writableSegment(LocalDate day) {
+        Segment last = null;
+        for (Segment segment : segments) {
+            if (segment.day.equals(day)) last = segment;
+        }
+        if (last != null && !last.compressed && last.rows() < maxRowsPerSegment) return last;
+
+        int sequence = last == null ? 1 : last.sequence + 1;
+        Path path = directory.resolve(SEGMENT_PREFIX + day + "-" + String.format("%03d", sequence) + SEGMENT_SUFFIX);
+        Segment segment = new Segment(path, day, sequence, false);
+        // Rows are only appended once they are in memory
+        segment.loaded = true;
+        segments.add(segment);
+        segments.sort(SEGMENT_ORDER);
+        return segment;
+    }
+
+    /**
+     * Replaces the footer with the rows followed by the new footer. Each step is synced
+     * before the next starts: the old footer is cut off, then the rows are written, then
+     * the footer. A crash therefore leaves either an intact footer after rows that are all
+     * on disk, or no footer and at most one torn line, which the index rebuilds from.
+     */
+    private void appendRows(Segment segment, List<Transaction> rows) throws IOException {
+        StringBuilder text = new StringBuilder();
+        if (segment.summary == null) text.append(FileStorageService.TRANSACTIONS_HEADER).append('\n');
+        rows.forEach(transaction -> text.append(transaction.toCsv()).append('\n'));
+        byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        Summary summary = segment.summary == null ? Summary.of(rows) : segment.summary.plus(Summary.of(rows));
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() > segment.footerOffset) {
+                channel.truncate(segment.footerOffset);
+                channel.force(false);
+            }
+            writeAt(channel, ByteBuffer.wrap(body), segment.footerOffset);
+            channel.force(false);
+            writeFooter(channel, summary, segment.footerOffset + body.length);
+        }
+        segment.summary = summary;
+        segment.footerOffset += body.length;
+    }
+
+    private static void writeFooter(FileChannel channel, Summary summary, long position) throws IOException {
+        writeAt(channel, ByteBuffer.wrap((summary.toLine() + '\n').getBytes(StandardCharsets.UTF_8)), position);
+        channel.force(false);
+    }
+
+    private static void writeAt(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) position += channel.write(bytes, position);
+    }
+
+    private List<Segment> index() throws IOException {
+        if (segments != null) return segments;
+
+        Map<String, Segment> found = new HashMap<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+                for (Path file : files) {
+                    Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+                    if (!name.matches()) continue;
+
+                    Segment segment = new Segment(file, LocalDate.parse(name.group(1)),
+                            Integer.parseInt(name.group(2)), name.group(3) != null);
+                    String key = segment.day + "-" + segment.sequence;
+                    Segment other = found.putIfAbsent(key, segment);
+                    if (other == null) continue;
+
+                    // A segment compressed right before a crash still has its plain copy, which is dropped
+                    Files.delete(segment.compressed ? other.path : segment.path);
+                    if (segment.compressed) found.put(key, segment);
+                }
+            }
+        }
+
+        List<Segment> indexed = new ArrayList<>();
+        for (Segment segment : found.values()) {
+            if (segment.compressed) {
+                readCompressedSummary(segment);
+            } else {
+                readFooter(segment);
+                if (segment.summary == null && !rebuildFooter(segment)) continue;
+            }
+            indexed.add(segment);
+        }
+        indexed.sort(SEGMENT_ORDER);
+        segments = indexed;
+        return segments;
+    }
+
+    private static void readFooter(Segment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int length = (int) Math.min(size, MAX_FOOTER_BYTES);
+            ByteBuffer tail = ByteBuffer.allocate(length);
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, size - length + tail.position()) < 0) break;
+            }
+
+            // Footers are plain ASCII, so every character is one byte
+            String text = new String(tail.array(), StandardCharsets.ISO_8859_1);
+            if (!text.endsWith("\n")) return;
+            int start = text.lastIndexOf('\n', text.length() - 2) + 1;
+            Summary summary = Summary.parse(text.substring(start, text.length() - 1));
+            if (summary == null) return;
+
+            segment.summary = summary;
+            segment.footerOffset = size - (text.length() - start);
+        }
+    }
+
+    /**
+     * Recomputes the footer of a segment whose last append was cut short. Everything from
+     * the first line that is torn or cannot be parsed onwards is cut off, and the footer is
+     * written after the rows before it. Segments left without any rows are deleted.
+     *
+     * @return false if the segment was deleted
+     */
+    private static boolean rebuildFooter(Segment segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment.path);
+        CsvTokenizer fields = new CsvTokenizer();
+        Summary summary = null;
+        int intact = 0;
+        while (intact < bytes.length) {
+            int end = indexOfLineBreak(bytes, intact);
+            if (end < 0) break;
+
+            if (!fields.reset(new String(bytes, intact, end - intact, StandardCharsets.UTF_8)).isSkippable()) {
+                Transaction transaction;
+                try {
+                    transaction = FileStorageService.parseTransaction(fields);
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+                summary = summary == null ? Summary.of(transaction) : summary.plus(Summary.of(transaction));
+            }
+            intact = end + 1;
+        }
+        if (summary == null) {
+            Files.delete(segment.path);
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact);
+            channel.force(false);
+            writeFooter(channel, summary, intact);
+        }
+        segment.summary = summary;
+        segment.footerOffset = intact;
+        return true;
+    }
+
+    private static int indexOfLineBreak(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    private static void readCompressedSummary(Segment segment) throws IOException {
+        try (BufferedReader reader = openCompressed(segment.path)) {
+            String line = reader.readLine();
+            segment.summary = line == null ? null : Summary.parse(line);
+        }
+        if (segment.summary == null) {
+            throw new IllegalStateException("Compressed segment has no summary: " + segment.path);
+        }
+    }
+
+    private static BufferedReader openCompressed(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8));
+    }
+
+    private static LocalDate dayOf(long epochMicros) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMicros, MICROS_PER_DAY));
+    }
+}
@@ -1,6 +1,7 @@
 package services;
 
 import models.ConfirmTransactionTask;
+import services.enums.ExecutionMode;
 import utils.ThreadErrorCollector;
 import models.Transaction;
 
@@ -12,12 +13,15 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Handles concurrent execution of confirmed banking transactions using a fixed thread pool.
+ * Handles concurrent execution of confirmed banking transactions using a fixed thread pool,
+ * a virtual thread per task or per-account lanes, depending on the {@link ExecutionMode}.
  * This service submits transaction confirmation tasks, waits for their completion,
  * aggregates thread-safe error messages, and provides controlled shutdown of the executor.
  */
 public class TransactionExecutionService {
+    // Exactly one of these is set, depending on the execution mode
     private final ExecutorService executorService;
+    private final PartitionedExecutor partitionedExecutor;
     private final BankingService bankingService;
     private final ThreadErrorCollector errorCollector;
 
@@ -26,11 +30,46 @@ public class TransactionExecutionService {
             BankingService bankingService,
             ThreadErrorCollector errorCollector
     ) {
-        this.executorService = Executors.newFixedThreadPool(poolSize);;
+        this(ExecutionMode.FIXED_POOL, poolSize, bankingService, errorCollector);
+    }
+
+    /**
+     * @param mode how confirmation tasks are scheduled
+     * @param poolSize number of platform threads for {@link ExecutionMode#FIXED_POOL},
+     *                 or number of lanes for {@link ExecutionMode#PARTITIONED}
+     * @param bankingService service used to confirm each transaction
+     * @param errorCollector collects errors raised by individual tasks
+     */
+    public TransactionExecutionService(
+            ExecutionMode mode,
+            int poolSize,
+            BankingService bankingService,
+            ThreadErrorCollector errorCollector
+    ) {
+        this.partitionedExecutor = mode == ExecutionMode.PARTITIONED ? new PartitionedExecutor(poolSize) : null;
+        this.executorService = mode == ExecutionMode.PARTITIONED ? null : createExecutor(mode, poolSize);
         this.bankingService = bankingService;
         this.errorCollector = errorCollector;
     }
 
+    private static ExecutorService createExecutor(ExecutionMode mode, int poolSize) {
+        return switch (mode) {
+            case FIXED_POOL -> Executors.newFixedThreadPool(poolSize);
+            // Virtual threads release their carrier while blocked, so blocking I/O on
+            // the confirm path does not limit throughput to the number of pool threads
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+            case PARTITIONED -> throw new IllegalArgumentException("Partitioned mode uses lanes, not a shared pool");
+        };
+    }
+
+    private Future<?> dispatch(Transaction transaction, Runnable task) {
+        if (partitionedExecutor != null) {
+            // Same account, same lane: transactions for one account apply in submission order
+            return partitionedExecutor.submit(transaction.getAccountNumber(), task);
+        }
+        return executorService.submit(task);
+    }
+
     /**
      * Submits all given transactions for concurrent execution
      * prints any errors collected during processing.
@@ -42,7 +81,7 @@ public class TransactionExecutionService {
 
         transactions.forEach(transaction -> {
             ConfirmTransactionTask task = new ConfirmTransactionTask(bankingService,transaction, errorCollector);
-            Future<?> future = executorService.submit(task);
+            Future<?> future = dispatch(transaction, task);
             futures.add(future);
         });
 
@@ -83,6 +122,11 @@ public class TransactionExecutionService {
      * The method waits briefly for all running tasks to finish
      */
     public void shutdown() {
+        if (partitionedExecutor != null) {
+            shutdownLanes();
+            return;
+        }
+
         executorService.shutdown();
         try {
             if(!executorService.awaitTermination(5, TimeUnit.SECONDS))
@@ -92,4 +136,14 @@ public class TransactionExecutionService {
         }
     }
 
+    private void shutdownLanes() {
+        partitionedExecutor.shutdown();
+        try {
+            if(!partitionedExecutor.awaitTermination(5, TimeUnit.SECONDS))
+                partitionedExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            partitionedExecutor.shutdownNow();
+        }
+    }
+
 }
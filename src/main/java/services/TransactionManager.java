@@ -1,12 +1,22 @@
 package services;
 
 import interfaces.AutoIdGenerator;
+import interfaces.TransactionArchive;
 import models.Account;
+import models.Money;
 import models.Transaction;
+import models.TransactionPage;
+import models.TransactionFilter;
+import models.TransactionSummary;
 import models.enums.TransactionType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handles creation, storage, and querying of transactions within the system.
@@ -14,25 +24,52 @@ import java.util.*;
  */
 public class TransactionManager {
     private final AutoIdGenerator idGenerator;
-    private final Map<String, List<Transaction>> transactions;
+    // Each account's history is locked on its own, so appends
+    // to different accounts never contend on a shared monitor
+    private final Map<String, AccountHistory> transactions = new ConcurrentHashMap<>();
     // keeps track of successful transactions since unsuccessful
     // transactions still increase idGenerator transaction count
-    private int transactionCount;
+    private final AtomicInteger transactionCount = new AtomicInteger();
+    private final TransactionTimeIndex timeIndex = new TransactionTimeIndex();
+    private final ColumnarTransactionStore columns = new ColumnarTransactionStore(ForkJoinPool.commonPool());
+    // Stored transactions that were not loaded, null when everything was
+    private final TransactionArchive archive;
 
     public TransactionManager(AutoIdGenerator idGenerator, Map<String, List<Transaction>> transactions) {
+        this(idGenerator, transactions, null);
+    }
+
+    /**
+     * @param idGenerator generates the IDs of new transactions
+     * @param transactions the transactions loaded at startup, by account number
+     * @param archive stored transactions that were not loaded, read when an account's history
+     *                or a time window reaches past what is in memory
+     */
+    public TransactionManager(
+            AutoIdGenerator idGenerator,
+            Map<String, List<Transaction>> transactions,
+            TransactionArchive archive
+    ) {
         this.idGenerator = idGenerator;
-        this.transactions = transactions;
-        this.transactionCount = transactions.values().stream().mapToInt(List::size).sum();
+        this.archive = archive;
+        transactions.forEach((accountNumber, history) -> {
+            this.transactions.put(accountNumber, new AccountHistory(history));
+            history.forEach(timeIndex::add);
+            history.forEach(columns::append);
+        });
+        this.transactionCount.set(transactions.values().stream().mapToInt(List::size).sum());
 
-        updateIdGenerator();
+        updateIdGenerator(idGenerator, transactions);
     }
 
-    private void updateIdGenerator() {
+    // Static so the constructor does not call methods a subclass could override
+    private static void updateIdGenerator(AutoIdGenerator idGenerator, Map<String, List<Transaction>> transactions) {
         if(transactions.isEmpty()) return;
 
-        int maxCount = transactions.keySet().stream()
-                .map(idGenerator::extractIndex)
-                .max(Integer::compareTo)
+        long maxCount = transactions.values().stream()
+                .flatMap(List::stream)
+                .mapToLong(Transaction::getTransactionNumber)
+                .max()
                 .orElse(0);
 
         idGenerator.setIdCounter(maxCount);
@@ -48,73 +85,220 @@ public class TransactionManager {
      * @return a newly created transaction instance
      */
     public Transaction createTransaction(
-            TransactionType transactionType, Account account, double amount, double balanceAfterTransaction) {
+            TransactionType transactionType, Account account, Money amount, Money balanceAfterTransaction) {
         String transactionId = idGenerator.generateId();
         return new Transaction(
                 transactionId, transactionType, account.getAccountNumber(), amount, balanceAfterTransaction, generateTimestamp());
     }
 
-    private String generateTimestamp() {
-        return Instant.now().toString();
+    private long generateTimestamp() {
+        return Transaction.toEpochMicros(Instant.now());
     }
 
     /**
-     * Stores a transaction in the system. Fails if the maximum number
-     * of allowed transactions has been reached.
+     * Stores a transaction in the system and updates the running totals
+     * of its account. Only the history of that account is locked.
      *
      * @param transaction the transaction to store
      */
-    synchronized public void addTransaction(Transaction transaction) {
+    public void addTransaction(Transaction transaction) {
         transactions
-                .computeIfAbsent(transaction.getAccountNumber(), key -> new ArrayList<>())
+                .computeIfAbsent(transaction.getAccountNumber(), key -> new AccountHistory())
                 .add(transaction);
-        this.transactionCount++;
+        this.timeIndex.add(transaction);
+        this.columns.append(transaction);
+        this.transactionCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the history of an account for reading, with its archived transactions
+     * merged in front on first access so listings, pages and totals cover all of it.
+     * A history is only created for an account that has archived transactions, so
+     * looking up numbers without any transactions keeps nothing in memory.
+     *
+     * @return the history, or null if the account has no transactions at all
+     */
+    private AccountHistory readableHistory(String accountNumber) {
+        AccountHistory history = transactions.get(accountNumber);
+        if (archive == null) return history;
+
+        if (history == null) {
+            List<Transaction> archived = loadArchived(accountNumber);
+            if (archived.isEmpty()) return null;
+            history = transactions.computeIfAbsent(accountNumber, key -> new AccountHistory());
+            history.mergeArchived(() -> archived, timeIndex::addToAccount);
+        } else {
+            history.mergeArchived(() -> loadArchived(accountNumber), timeIndex::addToAccount);
+        }
+        return history;
+    }
+
+    private List<Transaction> loadArchived(String accountNumber) {
+        try {
+            return archive.loadArchivedAccountTransactions(accountNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the archived history of " + accountNumber, e);
+        }
+    }
+
+    /**
+     * Adds the archived transactions in [from, to) that are not already among the
+     * transactions found in memory, keeping the result oldest first.
+     */
+    private List<Transaction> withArchived(List<Transaction> inMemory, Instant from, Instant to) {
+        if (archive == null || !from.isBefore(to)) return inMemory;
+
+        List<Transaction> archived;
+        try {
+            archived = archive.loadArchivedTransactionsBetween(from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived transactions", e);
+        }
+        if (archived.isEmpty()) return inMemory;
+
+        long fromMicros = Transaction.toEpochMicros(from);
+        long toMicros = Transaction.toEpochMicros(to);
+        Set<Long> found = new HashSet<>();
+        inMemory.forEach(transaction -> found.add(transaction.getTransactionNumber()));
+        List<Transaction> merged = new ArrayList<>(inMemory);
+        for (Transaction transaction : archived) {
+            if (transaction.getEpochMicros() >= fromMicros && transaction.getEpochMicros() < toMicros
+                    && found.add(transaction.getTransactionNumber())) {
+                merged.add(transaction);
+            }
+        }
+        merged.sort(Comparator.comparingLong(Transaction::getEpochMicros)
+                .thenComparingLong(Transaction::getTransactionNumber));
+        return merged;
+    }
+
+    private List<Transaction> historyOf(String accountNumber) {
+        AccountHistory history = transactions.get(accountNumber);
+        return history == null ? Collections.emptyList() : history.snapshot();
     }
 
     /**
-     * Retrieves all transactions associated with an account.
+     * Retrieves all transactions associated with an account, newest first.
      *
      * @param accountNumber the account identifier
      * @return a List of transactions
      */
     public List<Transaction> viewTransactionsByAccount(String accountNumber) {
-        return transactions
-                .getOrDefault(accountNumber, Collections.emptyList())
-                .stream()
-                .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
-                .toList();
+        AccountHistory history = readableHistory(accountNumber);
+        return history == null ? Collections.emptyList() : history.newestFirst();
+    }
+
+    /**
+     * Returns the newest transactions of an account. Pass the page's
+     * cursor to {@link #viewOlderTransactions} to continue further back.
+     *
+     * @param accountNumber the account identifier
+     * @param limit the maximum number of transactions to return
+     * @return the newest page of the account's history
+     */
+    public TransactionPage viewRecentTransactions(String accountNumber, int limit) {
+        return viewOlderTransactions(accountNumber, Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Returns the transactions recorded before a cursor from an earlier page, newest first.
+     * Only the page itself is copied, so the cost does not depend on the size of the history.
+     *
+     * @param accountNumber the account identifier
+     * @param cursor the nextCursor of the previous page
+     * @param limit the maximum number of transactions to return
+     * @return the next older page of the account's history
+     */
+    public TransactionPage viewOlderTransactions(String accountNumber, int cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        AccountHistory history = readableHistory(accountNumber);
+        return history == null ? TransactionPage.EMPTY : history.pageBefore(cursor, limit);
+    }
+
+    /**
+     * Returns every recorded transaction with a timestamp in [from, to), oldest first.
+     * Only the transactions inside the window are visited, and stored transactions that
+     * were not loaded are read for the part of the window they cover.
+     *
+     * @param from the inclusive start of the window
+     * @param to the exclusive end of the window
+     * @return the transactions recorded in that window
+     */
+    public List<Transaction> viewTransactionsBetween(Instant from, Instant to) {
+        return withArchived(timeIndex.between(from, to), from, to);
+    }
+
+    /**
+     * Returns the transactions of one account with a timestamp in [from, to), oldest first,
+     * including stored transactions that were not loaded. Only the transactions inside
+     * the window are visited, since archived ones are indexed when they are merged.
+     *
+     * @param accountNumber the account identifier
+     * @param from the inclusive start of the window
+     * @param to the exclusive end of the window
+     * @return the account's transactions recorded in that window
+     */
+    public List<Transaction> viewTransactionsBetween(String accountNumber, Instant from, Instant to) {
+        // Merges the account's archived transactions into its index on first access
+        readableHistory(accountNumber);
+        return timeIndex.between(accountNumber, from, to);
+    }
+
+    /**
+     * Counts the recorded transactions matching a filter. The count is a scan
+     * over columnar copies of the transactions, split across the common pool.
+     *
+     * @param filter the type, account and time window to match
+     * @return the number of matching transactions
+     */
+    public long countTransactions(TransactionFilter filter) {
+        return columns.scan(filter).count();
+    }
+
+    /**
+     * Sums the amounts of the recorded transactions matching a filter.
+     *
+     * @param filter the type, account and time window to match
+     * @return the total amount of the matching transactions
+     */
+    public Money sumTransactionAmounts(TransactionFilter filter) {
+        return Money.ofMinor(columns.scan(filter).amountMinorUnits());
+    }
+
+    /**
+     * Returns the running totals for a given account. The totals are kept
+     * up to date on every append, so this does not scan the history.
+     *
+     * @param accountNumber the account identifier
+     * @return the account's transaction count, deposits and withdrawals
+     */
+    public TransactionSummary getTransactionSummary(String accountNumber) {
+        AccountHistory history = readableHistory(accountNumber);
+        return history == null ? TransactionSummary.EMPTY : history.summary();
     }
 
     /**
-     * Computes the total deposit amount for a given account.
+     * Returns the total deposit amount for a given account,
+     * including incoming transfers.
      *
      * @param accountNumber the account identifier
-     * @return sum of all deposit transactions for the amount
+     * @return sum of all credit transactions for the amount
      */
-    public double calculateTotalDeposits(String accountNumber) {
-        TransactionType transactionType = TransactionType.DEPOSIT;
-        return transactions
-                .getOrDefault(accountNumber, Collections.emptyList())
-                .stream()
-                .filter(transaction -> transaction.getTransactionType() == transactionType)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    public Money calculateTotalDeposits(String accountNumber) {
+        return getTransactionSummary(accountNumber).totalDeposits();
     }
 
     /**
-     * Computes the total withdrawal amount for a given account.
+     * Returns the total withdrawal amount for a given account,
+     * including outgoing transfers.
      *
      * @param accountNumber the account identifier
-     * @return sum of all withdrawal transactions for the amount
+     * @return sum of all debit transactions for the amount
      */
-    public double calculateTotalWithdrawals(String accountNumber) {
-        TransactionType transactionType = TransactionType.WITHDRAWAL;
-        return transactions
-                .getOrDefault(accountNumber, Collections.emptyList())
-                .stream()
-                .filter(transaction -> transaction.getTransactionType() == transactionType)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    public Money calculateTotalWithdrawals(String accountNumber) {
+        return getTransactionSummary(accountNumber).totalWithdrawals();
     }
 
     /**
@@ -123,10 +307,10 @@ public class TransactionManager {
      * @return count of stored transactions
      */
     public int getTransactionCount() {
-        return this.transactionCount;
+        return this.transactionCount.get();
     }
 
     public List<Transaction> getAllTransactions() {
-        return this.transactions.values().stream().flatMap(List::stream).toList();
+        return this.transactions.keySet().stream().map(this::historyOf).flatMap(List::stream).toList();
     }
 }
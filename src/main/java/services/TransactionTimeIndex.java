@@ -0,0 +1,78 @@
+package services;
+
+import models.Transaction;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Time-ordered index over recorded transactions, both bank-wide and per account.
+ * <p>
+ *  Entries are keyed by epoch microseconds and transaction number in concurrent skip
+ *  lists, so a range query walks only the entries inside the requested window.
+ * </p>
+ */
+class TransactionTimeIndex {
+    // Sorts before every real transaction number, which makes it usable as a range bound
+    private static final long LOWEST_NUMBER = Long.MIN_VALUE;
+
+    private record TimeKey(long epochMicros, long transactionNumber) implements Comparable<TimeKey> {
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = Long.compare(epochMicros, other.epochMicros);
+            return byTime != 0 ? byTime : Long.compare(transactionNumber, other.transactionNumber);
+        }
+    }
+
+    private final ConcurrentSkipListMap<TimeKey, Transaction> all = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<TimeKey, Transaction>> byAccount = new ConcurrentHashMap<>();
+
+    void add(Transaction transaction) {
+        TimeKey key = keyOf(transaction);
+        all.put(key, transaction);
+        accountIndex(transaction.getAccountNumber()).put(key, transaction);
+    }
+
+    /**
+     * Adds a transaction to the index of its account only, such as an archived one
+     * whose bank-wide window queries already read from the archive.
+     */
+    void addToAccount(Transaction transaction) {
+        accountIndex(transaction.getAccountNumber()).put(keyOf(transaction), transaction);
+    }
+
+    private ConcurrentSkipListMap<TimeKey, Transaction> accountIndex(String accountNumber) {
+        return byAccount.computeIfAbsent(accountNumber, account -> new ConcurrentSkipListMap<>());
+    }
+
+    private static TimeKey keyOf(Transaction transaction) {
+        return new TimeKey(transaction.getEpochMicros(), transaction.getTransactionNumber());
+    }
+
+    /**
+     * @return transactions with from &lt;= timestamp &lt; to, oldest first
+     */
+    List<Transaction> between(Instant from, Instant to) {
+        return window(all, from, to);
+    }
+
+    /**
+     * @return transactions of one account with from &lt;= timestamp &lt; to, oldest first
+     */
+    List<Transaction> between(String accountNumber, Instant from, Instant to) {
+        ConcurrentSkipListMap<TimeKey, Transaction> index = byAccount.get(accountNumber);
+        return index == null ? List.of() : window(index, from, to);
+    }
+
+    private static List<Transaction> window(NavigableMap<TimeKey, Transaction> index, Instant from, Instant to) {
+        if (!from.isBefore(to)) return List.of();
+        return new ArrayList<>(index.subMap(
+                new TimeKey(Transaction.toEpochMicros(from), LOWEST_NUMBER), true,
+                new TimeKey(Transaction.toEpochMicros(to), LOWEST_NUMBER), false).values());
+    }
+}
@@ -0,0 +1,263 @@
+package services;
+
+import interfaces.TransactionJournal;
+import models.Transaction;
+import services.enums.FsyncPolicy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal that queues appended transactions and writes them to a wrapped journal
+ * from a background thread.
+ * <p>
+ *  Appending only puts the transaction on a bounded queue, so confirming a transaction
+ *  never waits for the disk. The writer drains the queue in batches, writes each batch
+ *  with one call and syncs according to the {@link FsyncPolicy}, so one sync commits a
+ *  whole group of transactions. When the disk falls behind the queue fills up and
+ *  appends block until the writer catches up, which bounds both the memory held by the
+ *  queue and the number of transactions a crash can lose.
+ * </p>
+ * <p>
+ *  Transactions appended together, such as the two sides of a transfer, are queued as
+ *  one group and always written in the same batch, so no flush or close can make one
+ *  of them durable without the other.
+ * </p>
+ * <p>
+ *  If a write fails the writer stops and every later append or flush reports the failure.
+ * </p>
+ */
+public class WriteBehindJournal implements TransactionJournal, AutoCloseable {
+    private final TransactionJournal delegate;
+    private final int capacity;
+    private final int batchSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long flushIntervalNanos;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Condition progressMade = lock.newCondition();
+    // Groups of transactions appended together, never split across batches
+    private final ArrayDeque<List<Transaction>> queue;
+    private int queuedRecords;
+    // Running counts of records, all guarded by the lock
+    private long enqueued;
+    private long written;
+    private long synced;
+    private long syncRequested;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * @param delegate the journal the records are written to
+     * @param capacity how many records may wait to be written before appends block
+     * @param batchSize the most records written with a single call
+     * @param fsyncPolicy when written records are synced to disk
+     * @param flushInterval how long records may stay unsynced under {@link FsyncPolicy#INTERVAL}
+     * @param unit the unit of the flush interval
+     */
+    public WriteBehindJournal(
+            TransactionJournal delegate,
+            int capacity,
+            int batchSize,
+            FsyncPolicy fsyncPolicy,
+            long flushInterval,
+            TimeUnit unit
+    ) {
+        if (capacity <= 0 || batchSize <= 0 || flushInterval <= 0) {
+            throw new IllegalArgumentException("Queue capacity, batch size and flush interval must be positive");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.flushIntervalNanos = unit.toNanos(flushInterval);
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+        this.writer = Thread.ofPlatform().name("journal-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Queues the transaction for writing, blocking while the queue is full.
+     *
+     * @throws IOException if the writer has failed or the journal is closed
+     */
+    @Override
+    public void append(Transaction transaction) throws IOException {
+        appendAll(List.of(transaction));
+    }
+
+    /**
+     * Queues the transactions as one group, blocking until the queue has room for all
+     * of them. The writer puts a whole group in a single batch, even if that makes the
+     * batch larger than the batch size.
+     *
+     * @throws IOException if the writer has failed or the journal is closed
+     * @throws IllegalArgumentException if there are more transactions than the queue holds
+     */
+    @Override
+    public void appendAll(List<Transaction> transactions) throws IOException {
+        if (transactions.size() > capacity) {
+            throw new IllegalArgumentException("Cannot queue more transactions at once than the queue holds: " + capacity);
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            while (capacity - queuedRecords < transactions.size()) {
+                awaitUninterruptedly(spaceAvailable);
+                ensureOpen();
+            }
+            queue.add(List.copyOf(transactions));
+            queuedRecords += transactions.size();
+            enqueued += transactions.size();
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every transaction appended before this call is written and synced.
+     *
+     * @throws IOException if the writer failed before the records were synced
+     */
+    @Override
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            long target = enqueued;
+            syncRequested = Math.max(syncRequested, target);
+            workAvailable.signal();
+            while (synced < target) {
+                if (failure != null) throw new IOException("Journal writer failed", failure);
+                awaitUninterruptedly(progressMade);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and syncs everything still queued, then stops the writer.
+     *
+     * @throws IOException if the writer failed before everything was written
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the journal");
+        }
+        if (failure != null) throw new IOException("Journal writer failed", failure);
+    }
+
+    /**
+     * @return the number of transactions waiting to be written
+     */
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queuedRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (failure != null) throw new IOException("Journal writer failed", failure);
+        if (closed) throw new IOException("Journal is closed");
+    }
+
+    private void awaitUninterruptedly(Condition condition) throws InterruptedIOException {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal");
+        }
+    }
+
+    private void writeLoop() {
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        long nextIntervalSync = System.nanoTime() + flushIntervalNanos;
+
+        while (true) {
+            long batchEnd;
+            boolean sync;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed && syncRequested <= synced && !intervalSyncDue(nextIntervalSync)) {
+                    if (fsyncPolicy == FsyncPolicy.INTERVAL && written > synced) {
+                        workAvailable.awaitNanos(nextIntervalSync - System.nanoTime());
+                    } else {
+                        workAvailable.await();
+                    }
+                }
+
+                while (batch.size() < batchSize && !queue.isEmpty()) batch.addAll(queue.poll());
+                queuedRecords -= batch.size();
+                spaceAvailable.signalAll();
+
+                batchEnd = written + batch.size();
+                sync = batchEnd > synced && (fsyncPolicy == FsyncPolicy.EVERY_BATCH
+                        || intervalSyncDue(nextIntervalSync)
+                        || (syncRequested > synced && syncRequested <= batchEnd)
+                        || (closed && queue.isEmpty()));
+                if (closed && queue.isEmpty() && batch.isEmpty() && !sync) return;
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer on purpose, keep draining
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                if (!batch.isEmpty()) delegate.appendAll(batch);
+                if (sync) {
+                    delegate.flush();
+                    nextIntervalSync = System.nanoTime() + flushIntervalNanos;
+                }
+            } catch (IOException | RuntimeException e) {
+                error = e instanceof IOException io ? io : new IOException(e);
+            }
+            batch.clear();
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    spaceAvailable.signalAll();
+                    progressMade.signalAll();
+                    return;
+                }
+                written = batchEnd;
+                if (sync) synced = batchEnd;
+                progressMade.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean intervalSyncDue(long nextIntervalSync) {
+        return fsyncPolicy == FsyncPolicy.INTERVAL && written > synced && System.nanoTime() >= nextIntervalSync;
+    }
+}
@@ -0,0 +1,17 @@
+package services.enums;
+
+public enum AccountStorageMode {
+    HEAP("Account objects on the heap"),
+    OFF_HEAP("Account records in direct memory");
+
+    private final String displayName;
+
+    AccountStorageMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
@@ -0,0 +1,18 @@
+package services.enums;
+
+public enum ExecutionMode {
+    FIXED_POOL("Fixed thread pool"),
+    VIRTUAL_THREADS("Virtual thread per task"),
+    PARTITIONED("Per-account lanes");
+
+    private final String displayName;
+
+    ExecutionMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
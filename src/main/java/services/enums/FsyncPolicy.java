@@ -0,0 +1,18 @@
+package services.enums;
+
+public enum FsyncPolicy {
+    EVERY_BATCH("Sync after every batch"),
+    INTERVAL("Sync once per flush interval"),
+    ON_FLUSH("Sync only when flushed");
+
+    private final String displayName;
+
+    FsyncPolicy(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
@@ -3,8 +3,8 @@ package utils;
 import models.Account;
 import models.CheckingAccount;
 import models.Customer;
+import models.Money;
 import models.Transaction;
-import models.enums.TransactionType;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -50,8 +50,10 @@ public class DisplayUtil {
         return customer.getName() + " (" + customer.getCustomerType() + ")";
     }
 
-    public static String displayAmount(double amount) {
-        return String.format("$%,.2f", amount);
+    public static String displayAmount(Money amount) {
+        long minorUnits = amount.minorUnits();
+        String sign = minorUnits < 0 ? "-" : "";
+        return String.format("$%s%,d.%02d", sign, Math.abs(minorUnits / 100), Math.abs(minorUnits % 100));
     }
 
     public static String displayDecimal(double decimal) {
@@ -61,7 +63,7 @@ public class DisplayUtil {
     public static String generateMonthlyFeeMetadata (CheckingAccount account) {
         Customer customer = account.getCustomer();
 
-        if(account.getMonthlyFee() == 0)
+        if(account.getMonthlyFee().isZero())
             return " (" + "WAIVED - " + customer.getCustomerType() + " Customer )";
 
         return " (" + "NOT WAIVED - " + customer.getCustomerType() + " Customer )";
@@ -91,7 +93,7 @@ public class DisplayUtil {
     }
 
     public static void displayTransaction(Transaction transaction) {
-        double previousAccountBalance = computePreviousBalance(transaction);
+        Money previousAccountBalance = computePreviousBalance(transaction);
 
         System.out.println("Transaction ID: " + transaction.getTransactionId());
         System.out.println("Account: " + transaction.getAccountNumber());
@@ -99,17 +101,14 @@ public class DisplayUtil {
         System.out.println("Amount: " + displayAmount(transaction.getAmount()));
         System.out.println("Previous Balance: " + displayAmount(previousAccountBalance));
         System.out.println("New Balance: " + displayAmount(transaction.getBalanceAfter()));
-        System.out.println("Date/Time: " + displayTimestamp(transaction.getTimestamp()));
+        System.out.println("Date/Time: " + displayTimestamp(transaction.getInstant()));
     }
 
-    private static double computePreviousBalance (Transaction transaction) {
-        if (transaction.getTransactionType() == TransactionType.WITHDRAWAL) {
-            return transaction.getBalanceAfter() + transaction.getAmount();
-        } else if (transaction.getTransactionType() == TransactionType.DEPOSIT) {
-            return transaction.getBalanceAfter() - transaction.getAmount();
-        } else {
-            return 0;
+    private static Money computePreviousBalance (Transaction transaction) {
+        if (transaction.getTransactionType().isCredit()) {
+            return transaction.getBalanceAfter().minus(transaction.getAmount());
         }
+        return transaction.getBalanceAfter().plus(transaction.getAmount());
     }
 
     public static void displayMultipleTransactions(List<Transaction> transactions) {
@@ -120,10 +119,10 @@ public class DisplayUtil {
         System.out.println("-".repeat(DISPLAY_STROKE_LENGTH));
 
         for (Transaction transaction : transactions) {
-            String dateTime = displayTimestamp(transaction.getTimestamp());
+            String dateTime = displayTimestamp(transaction.getInstant());
             String type = transaction.getTransactionType().toString().toUpperCase();
 
-            String amountSign = type.equalsIgnoreCase("Deposit") ? "+" : "-";
+            String amountSign = transaction.getTransactionType().isCredit() ? "+" : "-";
             String amount = amountSign + displayAmount(transaction.getAmount());
             String balance = displayAmount(transaction.getBalanceAfter());
 
@@ -132,8 +131,7 @@ public class DisplayUtil {
         }
     }
 
-    private static String displayTimestamp(String timestamp) {
-        Instant instant = Instant.parse(timestamp);
+    private static String displayTimestamp(Instant instant) {
         DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy hh:mm a");
         ZonedDateTime localDateTime = instant.atZone(ZoneId.systemDefault());
         return localDateTime.format(dateTimeFormatter);
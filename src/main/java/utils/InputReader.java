@@ -1,11 +1,13 @@
 package utils;
 
+import models.Money;
+
 import java.util.Scanner;
 import java.util.function.Function;
 
 /**
  * Utility class for reading validated input from the console.
- * Supports integers, doubles, non-empty strings with custom validation, and yes/no questions.
+ * Supports integers, doubles, money amounts, non-empty strings with custom validation, and yes/no questions.
  */
 public class InputReader {
 
@@ -71,6 +73,34 @@ public class InputReader {
         }
     }
 
+    /**
+     * Reads a money amount from the console at or above a specified minimum.
+     * The input is parsed exactly, so "0.1" is read as ten cents.
+     * Keeps prompting the user until a valid value is entered.
+     *
+     * @param prompt The message displayed to the user.
+     * @param min The minimum acceptable amount.
+     * @return A valid amount greater than or equal to min.
+     */
+    public Money readMoney(String prompt, Money min) {
+        while (true) {
+            System.out.print(prompt + ": ");
+
+            String input = this.scanner.nextLine().trim();
+
+            try {
+                Money value = Money.parse(input);
+                if(value.isLessThan(min)) {
+                    System.out.println("Please enter an amount of at least " + min + ".");
+                    continue;
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid amount.");
+            }
+        }
+    }
+
     /**
      * Reads a non-empty string from the console, validating it using the provided function.
      * Keeps prompting until a valid string is entered.
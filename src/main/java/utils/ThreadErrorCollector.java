@@ -3,6 +3,7 @@ package utils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A thread-safe collector for capturing and displaying errors produced by
@@ -10,7 +11,8 @@ import java.util.List;
  * can be retrieved, displayed, cleared, or counted for reporting purposes.
  */
 public class ThreadErrorCollector {
-    private int PREVIOUS_ERROR_COUNT = 0;
+    // Worker threads add errors concurrently, so the count is updated atomically
+    private final AtomicInteger PREVIOUS_ERROR_COUNT = new AtomicInteger();
 
     private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
 
@@ -25,7 +27,7 @@ public class ThreadErrorCollector {
      */
     public void addError(String msg) {
         errors.add(msg);
-        PREVIOUS_ERROR_COUNT += 1;
+        PREVIOUS_ERROR_COUNT.incrementAndGet();
     }
 
     /**
@@ -59,7 +61,7 @@ public class ThreadErrorCollector {
      * </p>
      */
     public void resetCount() {
-        PREVIOUS_ERROR_COUNT = 0;
+        PREVIOUS_ERROR_COUNT.set(0);
     }
 
     /**
@@ -71,7 +73,7 @@ public class ThreadErrorCollector {
     }
 
     public int getPREVIOUS_ERROR_COUNT() {
-        return PREVIOUS_ERROR_COUNT;
+        return PREVIOUS_ERROR_COUNT.get();
     }
 
     public List<String> getErrors() {
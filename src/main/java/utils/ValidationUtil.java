@@ -1,5 +1,7 @@
 package utils;
 
+import config.AppConfig;
+
 /**
  * Utility class for validating user input such as names, phone numbers, account numbers, and addresses.
  * Each method returns a string containing an error message if the input is invalid, or null if valid.
@@ -7,7 +9,7 @@ package utils;
 public class ValidationUtil {
 
     /**
-     * Validates a name. Must be at least 2 characters and contain only letters and spaces.
+     * Validates a name. Must be 2–63 characters and contain only letters and spaces.
      *
      * @param name The name to validate.
      * @return An error message if invalid, otherwise null.
@@ -15,6 +17,7 @@ public class ValidationUtil {
     public static String validateName(String name) {
         if (name == null || name.isEmpty()) return "Name cannot be empty.";
         if (!name.matches("^[A-Za-z ]{2,}$")) return "Name must contain only letters and spaces, and be at least 2 characters long.";
+        if (name.length() > AppConfig.MAX_NAME_LENGTH) return "Name must be at most " + AppConfig.MAX_NAME_LENGTH + " characters long.";
         return null;
     }
 
@@ -32,19 +35,19 @@ public class ValidationUtil {
     }
 
     /**
-     * Validates an account number. Must follow the format 'ACC' + 3 digits (e.g., ACC123).
+     * Validates an account number. Must follow the format 'ACC' + at least 3 digits (e.g., ACC123 or ACC1024).
      *
      * @param number The account number to validate.
      * @return An error message if invalid, otherwise null.
      */
     public static String validateAccountNumber(String number) {
         if (number == null || number.isEmpty()) return "Account number cannot be empty.";
-        if (!number.matches("^ACC\\d{3}$")) return "Account number must start with 'ACC' followed by 3 digits (e.g., ACC123).";
+        if (!number.matches("^ACC\\d{3,18}$")) return "Account number must start with 'ACC' followed by at least 3 digits (e.g., ACC123).";
         return null;
     }
 
     /**
-     * Validates a postal address. Must be 5–100 characters and can include letters, numbers,
+     * Validates a postal address. Must be 5–95 characters and can include letters, numbers,
      * spaces, commas, periods, apostrophes, and hyphens.
      *
      * @param address The address to validate.
@@ -52,7 +55,8 @@ public class ValidationUtil {
      */
     public static String validateAddress(String address) {
         if (address == null || address.isEmpty()) return "Address cannot be empty.";
-        if (!address.matches("^[A-Za-z0-9\\s,.'\\-]{5,100}$")) return "Address must be 5–100 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.";
+        if (!address.matches("^[A-Za-z0-9\\s,.'\\-]{5," + AppConfig.MAX_ADDRESS_LENGTH + "}$"))
+            return "Address must be 5–" + AppConfig.MAX_ADDRESS_LENGTH + " characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.";
         return null;
     }
 }
@@ -1,44 +1,23 @@
 package utils.id;
 
-import interfaces.AutoIdGenerator;
 import services.exceptions.InvalidAccountNumberException;
 
-import java.text.DecimalFormat;
-
-public class AccountIdGenerator implements AutoIdGenerator {
-    private static final DecimalFormat FORMATTER = new DecimalFormat("000");
-    private int accountCounter;
+/**
+ * Generates strictly sequential account numbers such as ACC001, ACC002 ... ACC1000.
+ */
+public class AccountIdGenerator extends AtomicIdGenerator {
 
     public AccountIdGenerator() {
-        this.accountCounter = 0;
-    }
-
-    @Override
-    public String generateId() {
-        this.accountCounter += 1;
-        String idString = FORMATTER.format(accountCounter);
-        return "ACC" + idString;
+        // Account numbers are customer facing, so they are handed out without gaps
+        super("ACC", 1);
     }
 
     @Override
-    public int getCounter() {
-        return this.accountCounter;
-    }
-
-    @Override
-    public int extractIndex(String accountNumber) {
-        int startIndex = accountNumber.length() - 3;
-        String indexString = accountNumber.substring(startIndex);
-
+    public long extractIndex(String accountNumber) {
         try {
-            return Integer.parseInt(indexString);
-        } catch (NumberFormatException e) {
+            return super.extractIndex(accountNumber);
+        } catch (IllegalArgumentException e) {
             throw new InvalidAccountNumberException("Account number format is invalid: " + accountNumber);
         }
     }
-
-    @Override
-    public void setIdCounter(int count) {
-        this.accountCounter = count;
-    }
 }
@@ -0,0 +1,111 @@
+package utils.id;
+
+import interfaces.AutoIdGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe ID generator producing IDs of the form prefix + number, e.g. TXN001 or TXN1234567890.
+ * <p>
+ *  The highest reserved number is kept in an {@link AtomicLong}. Each thread reserves a
+ *  block of numbers at a time and hands them out locally, so concurrent callers only
+ *  touch the shared counter once per block. Numbers are padded to at least three digits
+ *  and grow without limit, which keeps older IDs valid while scaling past 999.
+ * </p>
+ */
+public class AtomicIdGenerator implements AutoIdGenerator {
+    private static final int MIN_DIGITS = 3;
+    private static final int MAX_DIGITS = 19;
+
+    private final String prefix;
+    private final int blockSize;
+    private final AtomicLong counter = new AtomicLong();
+    // Bumped whenever the counter is reset so threads drop blocks reserved before the reset
+    private volatile long generation;
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    private static final class Block {
+        private long next = 1;
+        private long end = 0;
+        private long generation = -1;
+    }
+
+    /**
+     * @param prefix the letters in front of every ID
+     * @param blockSize how many numbers a thread reserves at a time, 1 for strictly sequential IDs
+     */
+    public AtomicIdGenerator(String prefix, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.prefix = prefix;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String generateId() {
+        return format(nextNumber());
+    }
+
+    private long nextNumber() {
+        if (blockSize == 1) return counter.incrementAndGet();
+
+        Block block = blocks.get();
+        if (block.next > block.end || block.generation != generation) {
+            block.generation = generation;
+            block.end = counter.addAndGet(blockSize);
+            block.next = block.end - blockSize + 1;
+        }
+        return block.next++;
+    }
+
+    /**
+     * Formats a number the way this generator writes IDs.
+     *
+     * @param number the numeric part of the ID
+     * @return the ID, e.g. TXN007 for 7
+     */
+    public String format(long number) {
+        char[] buffer = new char[prefix.length() + MAX_DIGITS];
+        int position = buffer.length;
+
+        long remaining = number;
+        do {
+            buffer[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        while (buffer.length - position < MIN_DIGITS) {
+            buffer[--position] = '0';
+        }
+
+        position -= prefix.length();
+        prefix.getChars(0, prefix.length(), buffer, position);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    @Override
+    public long getCounter() {
+        return this.counter.get();
+    }
+
+    @Override
+    public long extractIndex(String idNumber) {
+        int digits = idNumber.length() - prefix.length();
+        if (!idNumber.startsWith(prefix) || digits < MIN_DIGITS
+                || !Character.isDigit(idNumber.charAt(prefix.length()))) {
+            throw new IllegalArgumentException("ID format is invalid: " + idNumber);
+        }
+
+        try {
+            return Long.parseLong(idNumber, prefix.length(), idNumber.length(), 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID format is invalid: " + idNumber);
+        }
+    }
+
+    @Override
+    public void setIdCounter(long count) {
+        this.counter.set(count);
+        this.generation++;
+    }
+}
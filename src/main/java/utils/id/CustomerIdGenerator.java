@@ -0,0 +1,11 @@
+package utils.id;
+
+/**
+ * Generates strictly sequential customer IDs such as CUS001, CUS002 ... CUS1000.
+ */
+public class CustomerIdGenerator extends AtomicIdGenerator {
+
+    public CustomerIdGenerator() {
+        super("CUS", 1);
+    }
+}
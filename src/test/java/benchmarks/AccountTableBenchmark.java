@@ -0,0 +1,76 @@
+package benchmarks;
+
+import models.Account;
+import models.CheckingAccount;
+import models.Money;
+import models.RegularCustomer;
+import services.AccountManager;
+import services.enums.AccountStorageMode;
+import utils.id.AccountIdGenerator;
+
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the account storage modes by heap retained for the stored accounts
+ * and by the throughput of looking up an account and depositing into it.
+ * <p>
+ *  Run with {@code mvn test-compile}, then
+ *  {@code java -cp target/classes:target/test-classes benchmarks.AccountTableBenchmark}.
+ *  Optional arguments: account count and lookup count.
+ * </p>
+ */
+public class AccountTableBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int lookupCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        System.out.printf("%d accounts, %d lookups with a deposit each%n", accountCount, lookupCount);
+
+        for (AccountStorageMode mode : AccountStorageMode.values()) {
+            long heapBefore = usedHeapAfterGc();
+            AccountManager manager = fill(mode, accountCount);
+            long retainedBytes = usedHeapAfterGc() - heapBefore;
+
+            long bestNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                bestNanos = Math.min(bestNanos, lookupAndDeposit(manager, accountCount, lookupCount));
+            }
+            System.out.printf("%-30s %8.1f MB heap %12.0f ops/s%n",
+                    mode, retainedBytes / 1e6, lookupCount / (bestNanos / 1e9));
+        }
+    }
+
+    private static AccountManager fill(AccountStorageMode mode, int accountCount) {
+        AccountManager manager = new AccountManager(new AccountIdGenerator(), new HashMap<>(), mode);
+        RegularCustomer customer = new RegularCustomer("Benchmark", 30, "+233500000000", "Accra");
+        for (int i = 1; i <= accountCount; i++) {
+            manager.addAccount(new CheckingAccount(accountNumber(i), customer, Money.of(100), "active"));
+        }
+        return manager;
+    }
+
+    private static long lookupAndDeposit(AccountManager manager, int accountCount, int lookupCount)
+            throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Money amount = Money.of(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < lookupCount; i++) {
+            Account account = manager.findAccount(accountNumber(1 + random.nextInt(accountCount)));
+            account.deposit(amount);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String accountNumber(int index) {
+        return String.format("ACC%03d", index);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,113 @@
+package benchmarks;
+
+import models.Money;
+import models.Transaction;
+import models.enums.TransactionType;
+import services.FileStorageService;
+
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Compares loading a transaction csv through the in-place tokenizer of {@link FileStorageService}
+ * with the split-based parsing it replaced, by time and by bytes allocated per row.
+ * <p>
+ *  Both run on one thread so only the parsing differs. Run with {@code mvn test-compile}, then
+ *  {@code java -cp target/classes:target/test-classes benchmarks.CsvParsingBenchmark}.
+ *  Optional argument: row count, e.g. 10000000 for the full-size comparison.
+ * </p>
+ */
+public class CsvParsingBenchmark {
+    private static final int ACCOUNTS = 1_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        // Must be set before the common pool is first used, which the loader runs on
+        System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "1");
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Path file = Files.createTempFile("transactions", ".csv");
+        try {
+            writeRows(file, rowCount);
+            System.out.printf("%d rows, %.1f MB%n", rowCount, Files.size(file) / 1e6);
+
+            FileStorageService storage = new FileStorageService(file + ".accounts", file.toString());
+            measure("String.split", rowCount, () -> loadWithSplit(file));
+            measure("CsvTokenizer", rowCount, storage::loadTransactions);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Load {
+        Map<String, List<Transaction>> run() throws Exception;
+    }
+
+    private static void measure(String name, int rowCount, Load load) throws Exception {
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            System.gc();
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            Map<String, List<Transaction>> loaded = load.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, allocatedBytes() - bytesBefore);
+            if (loaded.size() != ACCOUNTS) throw new IllegalStateException("Unexpected account count");
+        }
+        System.out.printf("%-14s %8.0f ms %12.0f rows/s %8.1f bytes/row%n",
+                name, bestNanos / 1e6, rowCount / (bestNanos / 1e9), (double) bestBytes / rowCount);
+    }
+
+    private static void writeRows(Path file, int rowCount) throws Exception {
+        TransactionType[] types = TransactionType.values();
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("#transactionId,transactionType,accountNumber,amount,balanceAfter,timestamp");
+            writer.newLine();
+            for (int i = 1; i <= rowCount; i++) {
+                Transaction transaction = new Transaction(
+                        String.format("TXN%03d", i), types[i % types.length], String.format("ACC%03d", 1 + i % ACCOUNTS),
+                        Money.ofMinor(i % 100_000), Money.ofMinor(i), Transaction.toEpochMicros(start.plusMillis(i * 7L)));
+                writer.write(transaction.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * The parsing FileStorageService used before the tokenizer, kept here as the baseline.
+     */
+    private static Map<String, List<Transaction>> loadWithSplit(Path file) throws Exception {
+        Map<String, List<Transaction>> transactions = new HashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+        try (Stream<String> lines = Files.lines(file)) {
+            lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(line -> {
+                        String[] cols = Arrays.stream(line.split(",", -1)).map(String::trim).toArray(String[]::new);
+                        Transaction transaction = new Transaction(cols[0], TransactionType.fromString(cols[1]), cols[2],
+                                Money.parse(cols[3]), Money.parse(cols[4]), cols[5]);
+                        if (seenIds.add(transaction.getTransactionNumber())) {
+                            transactions.computeIfAbsent(transaction.getAccountNumber(), k -> new ArrayList<>())
+                                    .add(transaction);
+                        }
+                    });
+        }
+        return transactions;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import interfaces.TransactionJournal;
+import models.Account;
+import models.Money;
+import models.RegularCustomer;
+import models.Transaction;
+import services.AccountManager;
+import services.BankingService;
+import services.TransactionExecutionService;
+import services.TransactionManager;
+import services.enums.ExecutionMode;
+import utils.ThreadErrorCollector;
+import utils.id.AccountIdGenerator;
+import utils.id.TransactionIdGenerator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compares the throughput of the transaction execution modes when confirming
+ * a transaction involves blocking I/O, simulated by a journal that sleeps on append.
+ * <p>
+ *  Run with {@code mvn test-compile}, then
+ *  {@code java -cp target/classes:target/test-classes benchmarks.TransactionExecutionBenchmark}.
+ *  Optional arguments: transaction count and I/O latency in millis.
+ * </p>
+ */
+public class TransactionExecutionBenchmark {
+    private static final int ACCOUNTS = 500;
+    private static final int POOL_SIZE = 3;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        long ioLatencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 2;
+
+        System.out.printf("%d transactions over %d accounts, %d ms simulated I/O per confirm%n",
+                transactionCount, ACCOUNTS, ioLatencyMillis);
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            long bestNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                bestNanos = Math.min(bestNanos, run(mode, transactionCount, ioLatencyMillis));
+            }
+            double seconds = bestNanos / 1e9;
+            System.out.printf("%-25s %8.0f ms %12.0f txn/s%n",
+                    mode, bestNanos / 1e6, transactionCount / seconds);
+        }
+    }
+
+    private static long run(ExecutionMode mode, int transactionCount, long ioLatencyMillis) {
+        TransactionJournal blockingJournal = new TransactionJournal() {
+            @Override
+            public void append(Transaction transaction) {
+                try {
+                    Thread.sleep(ioLatencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+
+        AccountManager accountManager = new AccountManager(new AccountIdGenerator(), new HashMap<>());
+        BankingService bankingService = new BankingService(
+                accountManager,
+                new TransactionManager(new TransactionIdGenerator(), new HashMap<>()),
+                blockingJournal);
+
+        List<Account> accounts = new ArrayList<>();
+        RegularCustomer customer = new RegularCustomer("Bench", 30, "+233000000000", "benchmark");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(bankingService.createCheckingAccount(customer));
+        }
+
+        List<Transaction> transactions = new ArrayList<>(transactionCount);
+        for (int i = 0; i < transactionCount; i++) {
+            transactions.add(bankingService.processDeposit(accounts.get(i % ACCOUNTS), Money.of(10)));
+        }
+
+        TransactionExecutionService executionService = new TransactionExecutionService(
+                mode, POOL_SIZE, bankingService, new ThreadErrorCollector());
+
+        // Each task logs its result, which would otherwise dominate the measurement
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long start = System.nanoTime();
+            executionService.submitTransactions(transactions);
+            return System.nanoTime() - start;
+        } finally {
+            System.setOut(console);
+            executionService.shutdown();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import models.exceptions.InvalidAmountException;
 import models.exceptions.OverdraftExceededException;
 import org.junit.jupiter.api.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class CheckedAccountTest {
 
     private static Customer regularCustomer;
@@ -20,7 +22,7 @@ public class CheckedAccountTest {
 
     @BeforeEach
     void setupAccounts() {
-        double initialBalance = 1000;
+        Money initialBalance = Money.of(1000);
         String accountState = "active";
 
         regularChecked = new CheckingAccount("ACC001", regularCustomer, initialBalance, accountState);
@@ -30,7 +32,7 @@ public class CheckedAccountTest {
     @Test
     @DisplayName("Should throw InvalidAmountException for negative withdrawal")
     public void validateWithdrawalAmount() {
-        double withdrawalAmount = -50.49;
+        Money withdrawalAmount = Money.parse("-50.49");
 
         Assertions.assertThrows(InvalidAmountException.class, () -> {
             regularChecked.withdraw(withdrawalAmount);
@@ -42,7 +44,7 @@ public class CheckedAccountTest {
     @DisplayName("Should throw InsufficientFundsException for balance < -$1000")
     public void enforceOverdraftLimit() {
         // Overdraft limit here is $1000 and account has a current balance of $1000
-        double withdrawalAmount = 2000;
+        Money withdrawalAmount = Money.of(2000);
 
         // Processing the transaction before overdraft limit has/can be reached
         Assertions.assertDoesNotThrow(() -> {
@@ -60,16 +62,16 @@ public class CheckedAccountTest {
     @Test
     @DisplayName("Should update balance correctly after valid withdrawal")
     public void processAllowedWithdrawal() {
-        double withdrawalAmount = 500;
+        Money withdrawalAmount = Money.of(500);
 
         Assertions.assertDoesNotThrow(() -> {
             regularChecked.withdraw(withdrawalAmount);
             premiumChecked.withdraw(withdrawalAmount);
         });
 
-        double expectedBalance = 500;
-        double actualRegularBalance = regularChecked.getBalance();
-        double actualPremiumBalance = premiumChecked.getBalance();
+        Money expectedBalance = Money.of(500);
+        Money actualRegularBalance = regularChecked.getBalance();
+        Money actualPremiumBalance = premiumChecked.getBalance();
 
         Assertions.assertEquals(expectedBalance, actualRegularBalance);
         Assertions.assertEquals(expectedBalance, actualPremiumBalance);
@@ -78,7 +80,7 @@ public class CheckedAccountTest {
     @Test
     @DisplayName("Should throw InvalidAmountException for negative deposit")
     public void validateDepositAmount() {
-        double depositAmount = -409.56;
+        Money depositAmount = Money.parse("-409.56");
 
         Assertions.assertThrows(InvalidAmountException.class, () -> {
             regularChecked.deposit(depositAmount);
@@ -89,18 +91,46 @@ public class CheckedAccountTest {
     @Test
     @DisplayName("Should update balance correctly after valid deposit")
     public void processAllowedDeposit() {
-        double depositAmount = 500;
+        Money depositAmount = Money.of(500);
 
         Assertions.assertDoesNotThrow(() -> {
             regularChecked.deposit(depositAmount);
             premiumChecked.deposit(depositAmount);
         });
 
-        double expectedBalance = 1500;
-        double actualRegularBalance = regularChecked.getBalance();
-        double actualPremiumBalance = premiumChecked.getBalance();
+        Money expectedBalance = Money.of(1500);
+        Money actualRegularBalance = regularChecked.getBalance();
+        Money actualPremiumBalance = premiumChecked.getBalance();
 
         Assertions.assertEquals(expectedBalance, actualRegularBalance);
         Assertions.assertEquals(expectedBalance, actualPremiumBalance);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should never exceed overdraft limit under concurrent withdrawals")
+    public void enforceOverdraftLimitConcurrently() throws InterruptedException {
+        // Balance of $1000 plus $1000 overdraft allows exactly 20 withdrawals of $100
+        final int THREADS = 8;
+        final int ATTEMPTS_PER_THREAD = 10;
+        AtomicInteger successfulWithdrawals = new AtomicInteger();
+
+        Thread[] workers = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            workers[i] = new Thread(() -> {
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        regularChecked.withdraw(Money.of(100));
+                        successfulWithdrawals.incrementAndGet();
+                    } catch (OverdraftExceededException e) {
+                        // Expected once the overdraft limit is reached
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Assertions.assertEquals(20, successfulWithdrawals.get());
+        Assertions.assertEquals(Money.of(-1000), regularChecked.getBalance());
+    }
+}
@@ -0,0 +1,47 @@
+package models;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.DisplayUtil;
+
+public class MoneyTest {
+
+    @Test
+    @DisplayName("Should parse decimal amounts exactly")
+    void testParse() {
+        Assertions.assertEquals(1025, Money.parse("10.25").minorUnits());
+        Assertions.assertEquals(1050, Money.parse("10.5").minorUnits());
+        Assertions.assertEquals(-5, Money.parse("-0.05").minorUnits());
+        Assertions.assertEquals(10, Money.parse("0.1").minorUnits());
+        Assertions.assertEquals(100_000_000, Money.parse("1000000.0").minorUnits());
+    }
+
+    @Test
+    @DisplayName("Should accept amounts written by older versions")
+    void testParseLegacyFormats() {
+        Assertions.assertEquals(Money.of(10_000_000), Money.parse("1.0E7"));
+        Assertions.assertEquals(Money.parse("0.13"), Money.parse("0.125"));
+        Assertions.assertThrows(NumberFormatException.class, () -> Money.parse("ten"));
+        Assertions.assertThrows(NumberFormatException.class, () -> Money.parse(""));
+    }
+
+    @Test
+    @DisplayName("Should add cents without floating-point drift")
+    void testExactArithmetic() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) total = total.plus(Money.parse("0.1"));
+
+        Assertions.assertEquals(Money.of(1), total);
+        Assertions.assertEquals(Money.parse("35.00"), Money.of(1000).times(0.035));
+    }
+
+    @Test
+    @DisplayName("Should format as a plain decimal and as a display amount")
+    void testFormatting() {
+        Assertions.assertEquals("1250.05", Money.parse("1250.05").toString());
+        Assertions.assertEquals("-0.50", Money.parse("-0.5").toString());
+        Assertions.assertEquals("$1,250.05", DisplayUtil.displayAmount(Money.parse("1250.05")));
+        Assertions.assertEquals("$-1,000.00", DisplayUtil.displayAmount(Money.of(-1000)));
+    }
+}
@@ -20,7 +20,7 @@ public class SavingsAccountTest {
 
     @BeforeEach
     void setupAccounts() {
-        double initialBalance = 1000;
+        Money initialBalance = Money.of(1000);
         String accountState = "active";
 
         regularSavings = new SavingsAccount("ACC001", regularCustomer, initialBalance, accountState);
@@ -30,7 +30,7 @@ public class SavingsAccountTest {
     @Test
     @DisplayName("Should throw InvalidAmountException for negative withdrawal")
     public void validateWithdrawalAmount() {
-        double withdrawalAmount = -50.49;
+        Money withdrawalAmount = Money.parse("-50.49");
 
         Assertions.assertThrows(InvalidAmountException.class, () -> {
             regularSavings.withdraw(withdrawalAmount);
@@ -41,7 +41,7 @@ public class SavingsAccountTest {
     @Test
     @DisplayName("Should throw InsufficientFundsException for balance < $500")
     public void enforceMinimumBalance() {
-        double withdrawalAmount = 500.99;
+        Money withdrawalAmount = Money.parse("500.99");
 
         Assertions.assertThrows(InsufficientFundsException.class, () -> {
             regularSavings.withdraw(withdrawalAmount);
@@ -54,16 +54,16 @@ public class SavingsAccountTest {
     @Test
     @DisplayName("Should update balance correctly after valid withdrawal")
     public void processAllowedWithdrawal() {
-        double withdrawalAmount = 500;
+        Money withdrawalAmount = Money.of(500);
 
         Assertions.assertDoesNotThrow(() -> {
             regularSavings.withdraw(withdrawalAmount);
             premiumSavings.withdraw(withdrawalAmount);
         });
 
-        double expectedBalance = 500;
-        double actualRegularBalance = regularSavings.getBalance();
-        double actualPremiumBalance = premiumSavings.getBalance();
+        Money expectedBalance = Money.of(500);
+        Money actualRegularBalance = regularSavings.getBalance();
+        Money actualPremiumBalance = premiumSavings.getBalance();
 
         Assertions.assertEquals(expectedBalance, actualRegularBalance);
         Assertions.assertEquals(expectedBalance, actualPremiumBalance);
@@ -72,7 +72,7 @@ public class SavingsAccountTest {
     @Test
     @DisplayName("Should throw InvalidAmountException for negative deposit")
     public void validateDepositAmount() {
-        double depositAmount = -409.56;
+        Money depositAmount = Money.parse("-409.56");
 
         Assertions.assertThrows(InvalidAmountException.class, () -> {
             regularSavings.deposit(depositAmount);
@@ -83,16 +83,16 @@ public class SavingsAccountTest {
     @Test
     @DisplayName("Should update balance correctly after valid deposit")
     public void processAllowedDeposit() {
-        double depositAmount = 500;
+        Money depositAmount = Money.of(500);
 
         Assertions.assertDoesNotThrow(() -> {
             regularSavings.deposit(depositAmount);
             premiumSavings.deposit(depositAmount);
         });
 
-        double expectedBalance = 1500;
-        double actualRegularBalance = regularSavings.getBalance();
-        double actualPremiumBalance = premiumSavings.getBalance();
+        Money expectedBalance = Money.of(1500);
+        Money actualRegularBalance = regularSavings.getBalance();
+        Money actualPremiumBalance = premiumSavings.getBalance();
 
         Assertions.assertEquals(expectedBalance, actualRegularBalance);
         Assertions.assertEquals(expectedBalance, actualPremiumBalance);
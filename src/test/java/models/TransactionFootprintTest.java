@@ -0,0 +1,85 @@
+package models;
+
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Instant;
+import java.util.function.IntFunction;
+
+public class TransactionFootprintTest {
+    private static final int COUNT = 200_000;
+
+    /**
+     * The shape Transaction had before it was compacted: strings for the ID, account
+     * number and timestamp, and doubles for the amounts.
+     */
+    private record StringTransaction(
+            String transactionId, TransactionType type, String accountNumber,
+            double amount, double balanceAfter, String timestamp) {
+    }
+
+    @Test
+    @DisplayName("Should retain far less heap per transaction than the string-based layout")
+    void testRetainedBytesPerTransaction() {
+        String timestamp = "2025-12-10T08:45:12.345Z";
+        long epochMicros = Transaction.toEpochMicros(Instant.parse(timestamp));
+
+        // Both layouts get freshly built strings per row, as a loader parsing a file would
+        long before = retainedBytesPerElement(i -> new StringTransaction(
+                String.format("TXN%06d", i), TransactionType.DEPOSIT, "ACC" + (i % 100),
+                10.0, 100.0, new String(timestamp)));
+        long after = retainedBytesPerElement(i -> new Transaction(
+                String.format("TXN%06d", i), TransactionType.DEPOSIT, "ACC" + (i % 100),
+                Money.of(10), Money.of(100), epochMicros));
+
+        Assumptions.assumeTrue(before > 0 && after > 0, "Heap usage could not be measured on this JVM");
+        Assertions.assertTrue(after * 2 < before,
+                "Compact layout retained " + after + " bytes per transaction against " + before);
+    }
+
+    /**
+     * Measures the heap still in use once the elements are built and everything else
+     * they allocated has been collected.
+     */
+    private static long retainedBytesPerElement(IntFunction<Object> factory) {
+        long baseline = usedHeapAfterGc();
+        Object[] retained = new Object[COUNT];
+        for (int i = 0; i < COUNT; i++) retained[i] = factory.apply(i);
+        long used = usedHeapAfterGc() - baseline;
+        Reference.reachabilityFence(retained);
+        return used / COUNT;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Collections can leave some garbage behind, so the lowest of a few readings is kept
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    @Test
+    @DisplayName("Should read back the same ID and timestamp it was created with")
+    void testRoundTrip() {
+        Transaction transaction = new Transaction(
+                "TXN0042", TransactionType.TRANSFER_IN, "ACC001", Money.parse("12.5"), Money.of(100),
+                "2025-12-10T08:45:12.345678Z");
+
+        Assertions.assertEquals("TXN0042", transaction.getTransactionId());
+        Assertions.assertEquals(42, transaction.getTransactionNumber());
+        Assertions.assertEquals(TransactionType.TRANSFER_IN, transaction.getTransactionType());
+        Assertions.assertEquals("2025-12-10T08:45:12.345678Z", transaction.getTimestamp());
+        Assertions.assertEquals("TXN0042,Transfer In,ACC001,12.50,100.00,2025-12-10T08:45:12.345678Z", transaction.toCsv());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Transaction(
+                "ACC001", TransactionType.DEPOSIT, "ACC001", Money.of(1), Money.of(1), 0L));
+    }
+}
@@ -1,6 +1,8 @@
 package services;
 
+import models.Money;
 import models.Account;
+import models.CheckingAccount;
 import models.RegularCustomer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,7 @@ import services.exceptions.AccountNotFoundException;
 import utils.id.AccountIdGenerator;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.when;
@@ -34,8 +37,8 @@ class AccountManagerTest {
     @Test
     @DisplayName("Should return 0 when no account exists")
     void testGetTotalBalanceEmpty() {
-        double expectedBalance = 0;
-        double actualBalance = accountManager.getTotalBalance();
+        Money expectedBalance = Money.ZERO;
+        Money actualBalance = accountManager.getTotalBalance();
 
         Assertions.assertEquals(expectedBalance, actualBalance);
     }
@@ -47,16 +50,16 @@ class AccountManagerTest {
 
         when(accountIdGenerator.generateId()).thenReturn("ACC001").thenReturn("ACC002");
 
-        Account savings = accountManager.createSavingsAccount(regularCustomer, 100.1);
-        Account checking = accountManager.createCheckingAccount(regularCustomer, 100.1);
+        Account savings = accountManager.createSavingsAccount(regularCustomer, Money.parse("100.1"));
+        Account checking = accountManager.createCheckingAccount(regularCustomer, Money.parse("100.1"));
 
-        when(accountIdGenerator.getCounter()).thenReturn(1).thenReturn(2);
+        when(accountIdGenerator.getCounter()).thenReturn(1L).thenReturn(2L);
 
         accountManager.addAccount(savings);
         accountManager.addAccount(checking);
 
-        double expected = 200.2;
-        double actual = accountManager.getTotalBalance();
+        Money expected = Money.parse("200.2");
+        Money actual = accountManager.getTotalBalance();
 
         Assertions.assertEquals(expected, actual);
     }
@@ -66,28 +69,65 @@ class AccountManagerTest {
     void testGetTotalBalanceAfterTransaction() throws Exception{
         var regularCustomer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
         when(accountIdGenerator.generateId()).thenReturn("ACC001");
-        Account savingsAccount = accountManager.createSavingsAccount(regularCustomer, 500.1);
+        Account savingsAccount = accountManager.createSavingsAccount(regularCustomer, Money.parse("500.1"));
 
-        when(accountIdGenerator.getCounter()).thenReturn(1);
+        when(accountIdGenerator.getCounter()).thenReturn(1L);
         accountManager.addAccount(savingsAccount);
 
-        savingsAccount.deposit(500);
-        savingsAccount.withdraw(40);
+        savingsAccount.deposit(Money.of(500));
+        savingsAccount.withdraw(Money.of(40));
 
-        double expected = 960.1;
-        double actual = accountManager.getTotalBalance();
+        Money expected = Money.parse("960.1");
+        Money actual = accountManager.getTotalBalance();
 
         Assertions.assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Should include loaded accounts and concurrent updates in total balance")
+    void testGetTotalBalanceLoadedAndConcurrent() throws InterruptedException {
+        var regularCustomer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account loaded = new CheckingAccount("ACC001", regularCustomer, Money.of(100), "Active");
+        AccountManager manager = new AccountManager(accountIdGenerator, new HashMap<>(Map.of("ACC001", loaded)));
+
+        Thread[] workers = new Thread[4];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                for (int n = 0; n < 1000; n++) loaded.deposit(Money.parse("0.01"));
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Assertions.assertEquals(Money.of(140), manager.getTotalBalance());
+    }
+
+    @Test
+    @DisplayName("Should page through accounts in account number order")
+    void testGetAccountsPaged() {
+        var regularCustomer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        for (String accountNumber : List.of("ACC1000", "ACC002", "ACC999", "ACC001", "ACC010")) {
+            accountManager.addAccount(new CheckingAccount(accountNumber, regularCustomer, Money.ZERO, "Active"));
+        }
+
+        List<Account> firstPage = accountManager.getAccounts(null, 2);
+        List<Account> secondPage = accountManager.getAccounts("ACC002", 2);
+        List<Account> lastPage = accountManager.getAccounts("ACC999", 2);
+
+        Assertions.assertEquals(List.of("ACC001", "ACC002"), firstPage.stream().map(Account::getAccountNumber).toList());
+        Assertions.assertEquals(List.of("ACC010", "ACC999"), secondPage.stream().map(Account::getAccountNumber).toList());
+        Assertions.assertEquals(List.of("ACC1000"), lastPage.stream().map(Account::getAccountNumber).toList());
+        Assertions.assertEquals(5, accountManager.getStoredAccountCount());
+    }
+
     @Test
     @DisplayName("Should return correct account when account number is valid")
     void testFindAccountFound() throws AccountNotFoundException {
         var regularCustomer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
         when(accountIdGenerator.generateId()).thenReturn("ACC001");
-        Account savingsAccount = accountManager.createSavingsAccount(regularCustomer, 500.1);
+        Account savingsAccount = accountManager.createSavingsAccount(regularCustomer, Money.parse("500.1"));
 
-        when(accountIdGenerator.getCounter()).thenReturn(1);
+        when(accountIdGenerator.getCounter()).thenReturn(1L);
         accountManager.addAccount(savingsAccount);
 
         Account found = accountManager.findAccount(savingsAccount.getAccountNumber());
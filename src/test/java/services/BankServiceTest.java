@@ -1,5 +1,7 @@
 package services;
 
+import interfaces.TransactionJournal;
+import models.Money;
 import models.Account;
 import models.CheckingAccount;
 import models.Customer;
@@ -15,6 +17,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -42,13 +47,14 @@ public class BankServiceTest {
                 "TXN001",
                 TransactionType.DEPOSIT,
                 "ACC001",
-                200,
-                700,
+                Money.of(200),
+                Money.of(700),
                 "2025-12-10T08:45:12.345Z");
 
+        when(account.getBalance()).thenReturn(Money.of(700));
         bankingService.confirmTransaction(account, deposit);
 
-        verify(account).deposit(200);
+        verify(account).deposit(Money.of(200));
         verify(transactionManager).addTransaction(deposit);
     }
 
@@ -60,13 +66,14 @@ public class BankServiceTest {
                 "TXN001",
                 TransactionType.WITHDRAWAL,
                 "ACC001",
-                200,
-                700,
+                Money.of(200),
+                Money.of(700),
                 "2025-12-10T08:45:12.345Z");
 
+        when(account.getBalance()).thenReturn(Money.of(700));
         bankingService.confirmTransaction(account, withdrawal);
 
-        verify(account).withdraw(200);
+        verify(account).withdraw(Money.of(200));
         verify(transactionManager).addTransaction(withdrawal);
     }
 
@@ -94,51 +101,137 @@ public class BankServiceTest {
     @DisplayName("Should create correct withdrawal transactions")
     void testProcessWithdrawal() {
         Customer customer = mock(Customer.class);
-        Account account = new CheckingAccount("ACC001", customer, 1000, "active");
+        Account account = new CheckingAccount("ACC001", customer, Money.of(1000), "active");
 
-        when(transactionManager.createTransaction(TransactionType.WITHDRAWAL, account, 20, 980))
+        when(transactionManager.createTransaction(TransactionType.WITHDRAWAL, account, Money.of(20), Money.of(980)))
                 .thenReturn(
                         new Transaction(
                                 "TXN001",
                                 TransactionType.WITHDRAWAL,
                                 "ACC001",
-                                20,
-                                980,
+                                Money.of(20),
+                                Money.of(980),
                                 "2025-12-10T08:45:12.345Z")
                 );
-        Transaction transaction = bankingService.processWithdrawal(account, 20);
+        Transaction transaction = bankingService.processWithdrawal(account, Money.of(20));
 
         Assertions.assertEquals(TransactionType.WITHDRAWAL, transaction.getTransactionType());
         Assertions.assertEquals(account.getAccountNumber(), transaction.getAccountNumber());
-        Assertions.assertEquals(980, transaction.getBalanceAfter());
-        Assertions.assertEquals(20, transaction.getAmount());
+        Assertions.assertEquals(Money.of(980), transaction.getBalanceAfter());
+        Assertions.assertEquals(Money.of(20), transaction.getAmount());
 
-        Assertions.assertEquals(1000, account.getBalance());
+        Assertions.assertEquals(Money.of(1000), account.getBalance());
     }
 
     @Test
     @DisplayName("Should create correct deposit transactions")
     void testProcessDeposit() {
         Customer customer = mock(Customer.class);
-        Account account = new CheckingAccount("ACC001", customer, 1000, "active");
+        Account account = new CheckingAccount("ACC001", customer, Money.of(1000), "active");
 
-        when(transactionManager.createTransaction(TransactionType.DEPOSIT, account, 1000, 2000))
+        when(transactionManager.createTransaction(TransactionType.DEPOSIT, account, Money.of(1000), Money.of(2000)))
                 .thenReturn(
                         new Transaction(
                                 "TXN001",
                                 TransactionType.DEPOSIT,
                                 "ACC001",
-                                1000,
-                                2000,
+                                Money.of(1000),
+                                Money.of(2000),
                                 "2025-12-10T08:45:12.345Z")
                 );
-        Transaction transaction = bankingService.processDeposit(account, 1000);
+        Transaction transaction = bankingService.processDeposit(account, Money.of(1000));
 
         Assertions.assertEquals(TransactionType.DEPOSIT, transaction.getTransactionType());
         Assertions.assertEquals(account.getAccountNumber(), transaction.getAccountNumber());
-        Assertions.assertEquals(2000, transaction.getBalanceAfter());
-        Assertions.assertEquals(1000, transaction.getAmount());
+        Assertions.assertEquals(Money.of(2000), transaction.getBalanceAfter());
+        Assertions.assertEquals(Money.of(1000), transaction.getAmount());
+
+        Assertions.assertEquals(Money.of(1000), account.getBalance());
+    }
+
+    @Test
+    @DisplayName("Should debit source and credit target on transfer")
+    void testTransferMovesFunds() throws Exception {
+        Customer customer = mock(Customer.class);
+        Account source = new CheckingAccount("ACC001", customer, Money.of(1000), "active");
+        Account target = new CheckingAccount("ACC002", customer, Money.of(200), "active");
+        when(transactionManager.createTransaction(any(), any(), any(), any()))
+                .thenReturn(mock(Transaction.class));
+
+        bankingService.transfer(source, target, Money.of(300));
+
+        Assertions.assertEquals(Money.of(700), source.getBalance());
+        Assertions.assertEquals(Money.of(500), target.getBalance());
+        verify(transactionManager).createTransaction(TransactionType.TRANSFER_OUT, source, Money.of(300), Money.of(700));
+        verify(transactionManager).createTransaction(TransactionType.TRANSFER_IN, target, Money.of(300), Money.of(500));
+        verify(transactionManager, times(2)).addTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should leave both balances unchanged when transfer fails")
+    void testTransferFailureChangesNothing() {
+        Customer customer = mock(Customer.class);
+        Account source = new CheckingAccount("ACC001", customer, Money.of(100), "active");
+        Account target = new CheckingAccount("ACC002", customer, Money.of(200), "active");
+
+        Assertions.assertThrows(OverdraftExceededException.class,
+                () -> bankingService.transfer(source, target, Money.of(5000)));
+
+        Assertions.assertEquals(Money.of(100), source.getBalance());
+        Assertions.assertEquals(Money.of(200), target.getBalance());
+        verify(transactionManager, never()).addTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should roll back the balance when the journal cannot record the transaction")
+    void testJournalFailureRollsBack() throws Exception {
+        TransactionJournal journal = mock(TransactionJournal.class);
+        doThrow(new IOException("disk full")).when(journal).append(any());
+        doThrow(new IOException("disk full")).when(journal).appendAll(any());
+        BankingService journaledService = new BankingService(accountManager, transactionManager, journal);
+        Customer customer = mock(Customer.class);
+        Account source = new CheckingAccount("ACC001", customer, Money.of(1000), "active");
+        Account target = new CheckingAccount("ACC002", customer, Money.of(200), "active");
+        when(transactionManager.createTransaction(any(), any(), any(), any()))
+                .thenReturn(mock(Transaction.class));
+
+        Assertions.assertThrows(UncheckedIOException.class, () -> journaledService.confirmTransaction(source,
+                new Transaction("TXN002", TransactionType.DEPOSIT, "ACC001", Money.of(50), Money.of(1050), 0L)));
+        Assertions.assertThrows(UncheckedIOException.class,
+                () -> journaledService.transfer(source, target, Money.of(300)));
+
+        Assertions.assertEquals(Money.of(1000), source.getBalance());
+        Assertions.assertEquals(Money.of(200), target.getBalance());
+        verify(transactionManager, never()).addTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should complete opposite concurrent transfers without deadlock")
+    void testOppositeTransfersDoNotDeadlock() throws Exception {
+        Customer customer = mock(Customer.class);
+        Account first = new CheckingAccount("ACC001", customer, Money.of(1000), "active");
+        Account second = new CheckingAccount("ACC002", customer, Money.of(1000), "active");
+        when(transactionManager.createTransaction(any(), any(), any(), any()))
+                .thenReturn(mock(Transaction.class));
+
+        Thread forward = new Thread(() -> repeatTransfer(first, second));
+        Thread backward = new Thread(() -> repeatTransfer(second, first));
+        forward.start();
+        backward.start();
+        forward.join(10_000);
+        backward.join(10_000);
+
+        Assertions.assertFalse(forward.isAlive() || backward.isAlive());
+        Assertions.assertEquals(Money.of(2000), first.getBalance().plus(second.getBalance()));
+    }
 
-        Assertions.assertEquals(1000, account.getBalance());
+    private void repeatTransfer(Account source, Account target) {
+        for (int i = 0; i < 1000; i++) {
+            try {
+                bankingService.transfer(source, target, Money.of(1));
+            } catch (OverdraftExceededException | InsufficientFundsException e) {
+                Assertions.fail(e);
+            }
+        }
     }
 }
@@ -0,0 +1,178 @@
+package services;
+
+import models.Money;
+import interfaces.DataStorageService;
+import models.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class BinaryAccountStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private DataStorageService delegate;
+    private BinaryAccountStorageService storage;
+
+    @BeforeEach
+    void setup() {
+        snapshotPath = tempDir.resolve("accounts.snapshot");
+        delegate = mock(DataStorageService.class);
+        storage = new BinaryAccountStorageService(snapshotPath.toString(), delegate);
+    }
+
+    @Test
+    @DisplayName("Should fall back to wrapped storage when no snapshot exists")
+    void testLoadWithoutSnapshot() throws IOException {
+        storage.loadAccounts();
+
+        verify(delegate).loadAccounts();
+    }
+
+    @Test
+    @DisplayName("Should import the accounts of the wrapped storage into a new snapshot once")
+    void testImportsAccountsOnce() throws IOException {
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        when(delegate.loadAccounts()).thenReturn(
+                Map.of("ACC001", new SavingsAccount("ACC001", customer, Money.of(500), "active")));
+
+        Assertions.assertEquals(1, storage.loadAccounts().size());
+        Assertions.assertTrue(Files.exists(snapshotPath));
+
+        Map<String, Account> reloaded = new BinaryAccountStorageService(snapshotPath.toString(), delegate).loadAccounts();
+        Assertions.assertEquals(Money.of(500), reloaded.get("ACC001").getBalance());
+        verify(delegate, times(1)).loadAccounts();
+    }
+
+    @Test
+    @DisplayName("Should load the same accounts that were saved")
+    void testSaveAndLoadRoundTrip() throws IOException {
+        Customer regular = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Customer premium = new PremiumCustomer("Asare", 40, "+233123456789", "anywhere");
+        CheckingAccount checking = new CheckingAccount("ACC001", premium, Money.parse("1250.75"), "active");
+        checking.setMonthlyFee(Money.ZERO);
+
+        storage.saveAccounts(List.of(new SavingsAccount("ACC002", regular, Money.parse("600.1"), "active"), checking));
+
+        Map<String, Account> loaded = new BinaryAccountStorageService(snapshotPath.toString(), delegate).loadAccounts();
+
+        Assertions.assertEquals(2, loaded.size());
+        Account savings = loaded.get("ACC002");
+        Assertions.assertInstanceOf(SavingsAccount.class, savings);
+        Assertions.assertEquals(Money.parse("600.1"), savings.getBalance());
+        Assertions.assertEquals("Palal", savings.getCustomer().getName());
+        Assertions.assertEquals("somewhere", savings.getCustomer().getAddress());
+
+        CheckingAccount loadedChecking = (CheckingAccount) loaded.get("ACC001");
+        Assertions.assertEquals(Money.parse("1250.75"), loadedChecking.getBalance());
+        Assertions.assertEquals(Money.ZERO, loadedChecking.getMonthlyFee());
+        Assertions.assertInstanceOf(PremiumCustomer.class, loadedChecking.getCustomer());
+        verify(delegate, never()).loadAccounts();
+    }
+
+    @Test
+    @DisplayName("Should keep one fixed-width slot per account across saves")
+    void testSaveReusesSlots() throws IOException {
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        SavingsAccount first = new SavingsAccount("ACC001", customer, Money.of(500), "active");
+        SavingsAccount second = new SavingsAccount("ACC002", customer, Money.of(700), "active");
+
+        storage.saveAccounts(List.of(first, second));
+        long sizeAfterFirstSave = Files.size(snapshotPath);
+
+        first.deposit(Money.of(100));
+        new BinaryAccountStorageService(snapshotPath.toString(), delegate).saveAccounts(List.of(first, second));
+
+        Assertions.assertEquals(sizeAfterFirstSave, Files.size(snapshotPath));
+        Assertions.assertEquals(Money.of(600), storage.loadAccounts().get("ACC001").getBalance());
+    }
+
+    @Test
+    @DisplayName("Should keep customer IDs and share one customer per person across restarts")
+    void testCustomerIdsStable() throws IOException {
+        CustomerRegistry customers = new CustomerRegistry();
+        Customer owner = customers.register(new RegularCustomer("Palal", 21, "+233599968996", "somewhere"));
+        Customer other = customers.register(new RegularCustomer("Asare", 40, "+233123456789", "somewhere"));
+        storage.saveAccounts(List.of(
+                new SavingsAccount("ACC001", owner, Money.of(500), "active"),
+                new SavingsAccount("ACC002", other, Money.of(500), "active"),
+                new SavingsAccount("ACC003", owner, Money.of(500), "active")));
+
+        CustomerRegistry reloaded = new CustomerRegistry();
+        Map<String, Account> loaded =
+                new BinaryAccountStorageService(snapshotPath.toString(), delegate, reloaded).loadAccounts();
+
+        Customer first = loaded.get("ACC001").getCustomer();
+        Assertions.assertSame(first, loaded.get("ACC003").getCustomer());
+        Assertions.assertEquals(owner.getCustomerId(), first.getCustomerId());
+        Assertions.assertEquals(other.getCustomerId(), loaded.get("ACC002").getCustomer().getCustomerId());
+        Assertions.assertSame(loaded.get("ACC001").getStatus(), loaded.get("ACC002").getStatus());
+        Assertions.assertEquals(2, reloaded.size());
+    }
+
+    @Test
+    @DisplayName("Should only rewrite accounts changed since the last save")
+    void testSaveWritesDirtyAccountsOnly() throws IOException {
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        SavingsAccount changed = new SavingsAccount("ACC001", customer, Money.of(500), "active");
+        SavingsAccount unchanged = new SavingsAccount("ACC002", customer, Money.of(700), "active");
+        storage.saveAccounts(List.of(changed, unchanged));
+        Assertions.assertFalse(changed.isDirty());
+        Assertions.assertFalse(unchanged.isDirty());
+
+        changed.deposit(Money.of(100));
+        // Changes the saved balance without marking the account, so a rewrite would show
+        unchanged.setBalance(Money.of(900));
+        unchanged.clearDirty();
+        storage.saveAccounts(List.of(changed, unchanged));
+
+        Map<String, Account> loaded = new BinaryAccountStorageService(snapshotPath.toString(), delegate).loadAccounts();
+        Assertions.assertEquals(Money.of(600), loaded.get("ACC001").getBalance());
+        Assertions.assertEquals(Money.of(700), loaded.get("ACC002").getBalance());
+        Assertions.assertFalse(loaded.get("ACC001").isDirty());
+        Assertions.assertFalse(changed.isDirty());
+    }
+
+    @Test
+    @DisplayName("Should finish a save that stopped before the snapshot was updated")
+    void testPendingUpdateApplied() throws IOException {
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        SavingsAccount account = new SavingsAccount("ACC001", customer, Money.of(500), "active");
+        storage.saveAccounts(List.of(account));
+
+        account.deposit(Money.of(100));
+        // Stops after the update is staged, as a crash during the save would
+        storage.writePendingUpdate(List.of(account), 1, false);
+
+        Map<String, Account> loaded = new BinaryAccountStorageService(snapshotPath.toString(), delegate).loadAccounts();
+
+        Assertions.assertEquals(Money.of(600), loaded.get("ACC001").getBalance());
+        Assertions.assertTrue(Files.notExists(tempDir.resolve("accounts.snapshot.pending")));
+    }
+
+    @Test
+    @DisplayName("Should discard a damaged pending update and keep the snapshot")
+    void testDamagedPendingUpdateDiscarded() throws IOException {
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        storage.saveAccounts(List.of(new SavingsAccount("ACC001", customer, Money.of(500), "active")));
+        Path pending = tempDir.resolve("accounts.snapshot.pending");
+        Files.write(pending, new byte[]{0x50, 0x45, 0x4e, 0x44, 0, 0, 0});
+
+        Map<String, Account> loaded = new BinaryAccountStorageService(snapshotPath.toString(), delegate).loadAccounts();
+
+        Assertions.assertEquals(Money.of(500), loaded.get("ACC001").getBalance());
+        Assertions.assertTrue(Files.notExists(pending));
+    }
+}
@@ -0,0 +1,45 @@
+package services;
+
+import models.Money;
+import models.Transaction;
+import models.TransactionFilter;
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+
+public class ColumnarTransactionStoreTest {
+
+    @Test
+    @DisplayName("Should count and sum matching rows across chunks in parallel")
+    void testScanAcrossChunks() {
+        final int ROWS = 200_000;
+        ColumnarTransactionStore store = new ColumnarTransactionStore(new ForkJoinPool(4));
+        Instant start = Instant.parse("2025-12-10T00:00:00Z");
+
+        for (int i = 0; i < ROWS; i++) {
+            TransactionType type = i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            String account = i % 4 < 2 ? "ACC001" : "ACC002";
+            store.append(new Transaction("TXN" + (i + 1), type, account,
+                    Money.ofMinor(i), Money.ZERO, Transaction.toEpochMicros(start.plusSeconds(i))));
+        }
+
+        ColumnarTransactionStore.Aggregate all = store.scan(TransactionFilter.ALL);
+        Assertions.assertEquals(ROWS, all.count());
+        Assertions.assertEquals((long) ROWS * (ROWS - 1) / 2, all.amountMinorUnits());
+
+        ColumnarTransactionStore.Aggregate deposits = store.scan(TransactionFilter.ofType(TransactionType.DEPOSIT));
+        Assertions.assertEquals(ROWS / 2, deposits.count());
+
+        ColumnarTransactionStore.Aggregate window = store.scan(
+                TransactionFilter.between(start.plusSeconds(10), start.plusSeconds(20)).withAccount("ACC002"));
+        // Rows 10, 11, 14, 15, 18 and 19 belong to ACC002
+        Assertions.assertEquals(6, window.count());
+        Assertions.assertEquals(10 + 11 + 14 + 15 + 18 + 19, window.amountMinorUnits());
+
+        Assertions.assertEquals(0, store.scan(TransactionFilter.ALL.withAccount("ACC404")).count());
+    }
+}
@@ -0,0 +1,74 @@
+package services;
+
+import models.Transaction;
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.time.Instant;
+
+public class CsvTokenizerTest {
+
+    @Test
+    @DisplayName("Should read trimmed fields and primitives out of part of a buffer")
+    void testReadsFields() {
+        CharBuffer buffer = CharBuffer.wrap("ignored\n Checking , ACC001,21,-1250.5,Transfer Out\nrest");
+        CsvTokenizer fields = new CsvTokenizer().reset(buffer, 8, 50);
+
+        Assertions.assertFalse(fields.isSkippable());
+        Assertions.assertEquals("Checking", fields.nextString("type"));
+        Assertions.assertEquals(1L, fields.nextPrefixedNumber("ACC", "number"));
+        Assertions.assertEquals(3, fields.fieldLength() - "ACC".length());
+        Assertions.assertEquals(21, fields.nextInt("age"));
+        Assertions.assertEquals(-125050L, fields.nextMinorUnits("amount"));
+        Assertions.assertEquals(TransactionType.TRANSFER_OUT, fields.nextEnum(TransactionType.values(), "type"));
+        Assertions.assertFalse(fields.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should read timestamps exactly as Instant does")
+    void testTimestamps() {
+        CsvTokenizer fields = new CsvTokenizer();
+        String[] timestamps = {
+                "2025-12-10T08:45:12Z",
+                "2025-12-10T08:45:12.3Z",
+                "2025-12-10T08:45:12.345678Z",
+                "2025-12-10T08:45:12.345678999Z",
+                "1969-12-31T23:59:59.999999Z",
+                "2024-02-29T00:00:00Z",
+                "+12025-01-01T00:00:00Z"
+        };
+
+        for (String timestamp : timestamps) {
+            Assertions.assertEquals(Transaction.toEpochMicros(Instant.parse(timestamp)),
+                    fields.reset(timestamp).nextEpochMicros("timestamp"), timestamp);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> fields.reset("2025-02-30T00:00:00Z").nextEpochMicros("timestamp"));
+    }
+
+    @Test
+    @DisplayName("Should report the field and line of a bad or missing column")
+    void testErrors() {
+        CsvTokenizer fields = new CsvTokenizer();
+
+        IllegalArgumentException badAge = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> {
+                    fields.reset("Palal,2x").nextString("CustomerName");
+                    fields.nextInt("CustomerAge");
+                });
+        Assertions.assertTrue(badAge.getMessage().contains("CustomerAge: 2x"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> {
+                    fields.reset("TXN001").nextString("transactionId");
+                    fields.nextString("transactionType");
+                });
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> fields.reset("TXN").nextPrefixedNumber(Transaction.ID_PREFIX, "transactionId"));
+        Assertions.assertTrue(fields.reset("  # a comment").isSkippable());
+        Assertions.assertTrue(fields.reset("   ").isSkippable());
+    }
+}
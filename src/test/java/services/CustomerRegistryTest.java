@@ -0,0 +1,55 @@
+package services;
+
+import models.Customer;
+import models.PremiumCustomer;
+import models.RegularCustomer;
+import models.enums.CustomerType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CustomerRegistryTest {
+
+    @Test
+    @DisplayName("Should return one customer object for the same person")
+    void testDeduplicates() {
+        CustomerRegistry registry = new CustomerRegistry();
+
+        Customer first = registry.register(new RegularCustomer("Palal", 21, "+233599968996", "somewhere"));
+        Customer again = registry.register(new RegularCustomer("Palal", 21, "+233599968996", "somewhere"));
+        Customer premium = registry.register(new PremiumCustomer("Palal", 21, "+233599968996", "somewhere"));
+
+        Assertions.assertSame(first, again);
+        Assertions.assertNotSame(first, premium);
+        Assertions.assertEquals("CUS001", first.getCustomerId());
+        Assertions.assertEquals("CUS002", premium.getCustomerId());
+        Assertions.assertEquals(2, registry.size());
+    }
+
+    @Test
+    @DisplayName("Should share repeated field values between different customers")
+    void testPoolsFields() {
+        CustomerRegistry registry = new CustomerRegistry();
+
+        Customer first = registry.register(new RegularCustomer("Palal", 21, "+233599968996", new String("somewhere")));
+        Customer second = registry.register(new RegularCustomer("Asare", 40, "+233123456789", new String("somewhere")));
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first.getAddress(), second.getAddress());
+    }
+
+    @Test
+    @DisplayName("Should keep stored IDs and continue numbering after the highest one")
+    void testKeepsStoredIds() {
+        CustomerRegistry registry = new CustomerRegistry();
+
+        Customer stored = registry.register(CustomerType.REGULAR, "CUS042", "Palal", 21, "+233599968996", "somewhere");
+        Customer taken = registry.register(CustomerType.REGULAR, "CUS042", "Asare", 40, "+233123456789", "somewhere");
+        Customer fresh = registry.register(new RegularCustomer("Mensah", 30, "+233111111111", "elsewhere"));
+
+        Assertions.assertEquals("CUS042", stored.getCustomerId());
+        Assertions.assertEquals("CUS043", taken.getCustomerId());
+        Assertions.assertEquals("CUS044", fresh.getCustomerId());
+        Assertions.assertSame(taken, registry.find(43));
+    }
+}
@@ -0,0 +1,112 @@
+package services;
+
+import models.Money;
+import models.Transaction;
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class FileTransactionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path journalPath;
+    private FileTransactionJournal journal;
+
+    @BeforeEach
+    void setup() {
+        journalPath = tempDir.resolve("transactions.journal");
+        journal = new FileTransactionJournal(journalPath.toString());
+    }
+
+    @Test
+    @DisplayName("Should return no transactions when journal does not exist")
+    void testReplayMissingJournal() throws IOException {
+        Assertions.assertTrue(journal.replay().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replay appended transactions in order")
+    void testReplayAppendedTransactions() throws IOException {
+        String time = "2025-12-10T08:45:12.345Z";
+        journal.append(new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(2000), time));
+        journal.append(new Transaction("TXN002", TransactionType.WITHDRAWAL, "ACC001", Money.of(50), Money.of(1950), time));
+        journal.flush();
+
+        List<Transaction> replayed = new FileTransactionJournal(journalPath.toString()).replay();
+
+        Assertions.assertEquals(2, replayed.size());
+        Assertions.assertEquals("TXN001", replayed.get(0).getTransactionId());
+        Assertions.assertEquals("TXN002", replayed.get(1).getTransactionId());
+        Assertions.assertEquals(Money.of(1950), replayed.get(1).getBalanceAfter());
+    }
+
+    @Test
+    @DisplayName("Should ignore a partially written final record")
+    void testReplayIgnoresTornRecord() throws IOException {
+        String time = "2025-12-10T08:45:12.345Z";
+        journal.append(new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(2000), time));
+        journal.flush();
+
+        // Simulates a crash in the middle of writing the next record
+        Files.write(journalPath, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        List<Transaction> replayed = journal.replay();
+
+        Assertions.assertEquals(1, replayed.size());
+        Assertions.assertEquals("TXN001", replayed.getFirst().getTransactionId());
+    }
+
+    @Test
+    @DisplayName("Should truncate a torn final record so later appends replay")
+    void testReplayTruncatesTornRecord() throws IOException {
+        String time = "2025-12-10T08:45:12.345Z";
+        journal.append(new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(2000), time));
+        journal.flush();
+        long intactSize = Files.size(journalPath);
+        Files.write(journalPath, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        FileTransactionJournal reopened = new FileTransactionJournal(journalPath.toString());
+        reopened.replay();
+        Assertions.assertEquals(intactSize, Files.size(journalPath));
+
+        reopened.append(new Transaction("TXN002", TransactionType.WITHDRAWAL, "ACC001", Money.of(50), Money.of(1950), time));
+        reopened.flush();
+
+        List<Transaction> replayed = new FileTransactionJournal(journalPath.toString()).replay();
+        Assertions.assertEquals(2, replayed.size());
+        Assertions.assertEquals("TXN002", replayed.get(1).getTransactionId());
+    }
+
+    @Test
+    @DisplayName("Should replay sealed records before records appended after sealing")
+    void testSealStartsNewSegment() throws IOException {
+        String time = "2025-12-10T08:45:12.345Z";
+        journal.append(new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(2000), time));
+        Assertions.assertTrue(journal.seal());
+        journal.append(new Transaction("TXN002", TransactionType.WITHDRAWAL, "ACC001", Money.of(50), Money.of(1950), time));
+        journal.flush();
+
+        Assertions.assertEquals(List.of("TXN001"),
+                journal.readSealed().stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN001", "TXN002"),
+                journal.replay().stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertThrows(IllegalStateException.class, journal::seal);
+
+        journal.dropSealed();
+
+        Assertions.assertTrue(journal.readSealed().isEmpty());
+        Assertions.assertEquals(List.of("TXN002"),
+                journal.replay().stream().map(Transaction::getTransactionId).toList());
+    }
+}
@@ -0,0 +1,204 @@
+package services;
+
+import models.Account;
+import models.Customer;
+import models.Money;
+import models.RegularCustomer;
+import models.Transaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.id.AccountIdGenerator;
+import utils.id.TransactionIdGenerator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JournalCompactorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileTransactionJournal journal;
+    private JournaledStorageService journaledStorage;
+    private BinaryAccountStorageService storage;
+
+    @BeforeEach
+    void setup() {
+        openStorage();
+    }
+
+    /**
+     * Opens the storage stack over the files in the temp directory, as a restart would.
+     */
+    private void openStorage() {
+        CustomerRegistry customers = new CustomerRegistry();
+        journal = new FileTransactionJournal(tempDir.resolve("transactions.journal").toString());
+        journaledStorage = new JournaledStorageService(
+                new FileStorageService(
+                        tempDir.resolve("accounts.txt").toString(),
+                        tempDir.resolve("transactions.txt").toString(),
+                        customers
+                ),
+                journal
+        );
+        storage = new BinaryAccountStorageService(
+                tempDir.resolve("accounts.snapshot").toString(), journaledStorage, customers);
+    }
+
+    private BankingService newBankingService() {
+        return new BankingService(
+                new AccountManager(new AccountIdGenerator(), new HashMap<>()),
+                new TransactionManager(new TransactionIdGenerator(), new HashMap<>()),
+                journal
+        );
+    }
+
+    @Test
+    @DisplayName("Should fold the journal into the history and leave only the tail to replay")
+    void testCompactFoldsJournal() throws Exception {
+        BankingService bankingService = newBankingService();
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account account = bankingService.createSavingsAccount(customer);
+        bankingService.confirmTransaction(account, bankingService.processDeposit(account, Money.of(800)));
+
+        new JournalCompactor(bankingService, storage, journal, journal).compact();
+
+        Assertions.assertTrue(journal.replay().isEmpty());
+        Assertions.assertTrue(journal.readSealed().isEmpty());
+        Assertions.assertEquals(2, Files.readAllLines(tempDir.resolve("transactions.txt")).size());
+
+        bankingService.confirmTransaction(account, bankingService.processWithdrawal(account, Money.of(150)));
+
+        Assertions.assertEquals(1, journal.replay().size());
+    }
+
+    @Test
+    @DisplayName("Should restore balances changed after the snapshot from the journal tail")
+    void testRecoverAfterCrash() throws Exception {
+        BankingService bankingService = newBankingService();
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account account = bankingService.createSavingsAccount(customer);
+        bankingService.confirmTransaction(account, bankingService.processDeposit(account, Money.of(800)));
+        new JournalCompactor(bankingService, storage, journal, journal).compact();
+        bankingService.confirmTransaction(account, bankingService.processWithdrawal(account, Money.of(150)));
+        journal.flush();
+
+        // Restart without saving, the snapshot still holds the balance before the withdrawal
+        openStorage();
+        Map<String, Account> accounts = storage.loadAccounts();
+        Assertions.assertEquals(Money.of(800), accounts.get(account.getAccountNumber()).getBalance());
+
+        Assertions.assertEquals(1, journaledStorage.recoverBalances(accounts));
+        Map<String, List<Transaction>> transactions = storage.loadTransactions();
+
+        Assertions.assertEquals(Money.of(650), accounts.get(account.getAccountNumber()).getBalance());
+        Assertions.assertEquals(2, transactions.get(account.getAccountNumber()).size());
+    }
+
+    @Test
+    @DisplayName("Should restore the latest balance when transactions were created before any was confirmed")
+    void testRecoverBatchedTransactions() throws Exception {
+        BankingService bankingService = newBankingService();
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account account = bankingService.createSavingsAccount(customer);
+        storage.saveAccounts(bankingService.viewAllAccounts());
+        // Both are created from the same starting balance, as in a batch of concurrent transactions
+        Transaction first = bankingService.processDeposit(account, Money.of(100));
+        Transaction second = bankingService.processDeposit(account, Money.of(100));
+        bankingService.confirmTransaction(account, first);
+        bankingService.confirmTransaction(account, second);
+        journal.flush();
+
+        openStorage();
+        Map<String, Account> accounts = storage.loadAccounts();
+        journaledStorage.recoverBalances(accounts);
+
+        Assertions.assertEquals(Money.of(200), account.getBalance());
+        Assertions.assertEquals(Money.of(200), accounts.get(account.getAccountNumber()).getBalance());
+    }
+
+    @Test
+    @DisplayName("Should keep an account created after the last snapshot across a crash")
+    void testRecoverAccountCreatedAfterSnapshot() throws Exception {
+        BankingService bankingService = new BankingService(
+                new AccountManager(new AccountIdGenerator(), new HashMap<>()),
+                new TransactionManager(new TransactionIdGenerator(), new HashMap<>()),
+                journal,
+                storage
+        );
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account first = bankingService.createSavingsAccount(customer);
+        new JournalCompactor(bankingService, storage, journal, journal).compact();
+        Account second = bankingService.createSavingsAccount(customer);
+        bankingService.confirmTransaction(second, bankingService.processDeposit(second, Money.of(800)));
+        journal.flush();
+
+        // Restart without another snapshot, the new account must not be handed out again
+        openStorage();
+        Map<String, Account> accounts = storage.loadAccounts();
+        journaledStorage.recoverBalances(accounts);
+        AccountManager accountManager = new AccountManager(new AccountIdGenerator(), accounts);
+
+        Assertions.assertEquals(List.of(first.getAccountNumber(), second.getAccountNumber()),
+                accountManager.getAllAccounts().stream().map(Account::getAccountNumber).toList());
+        Assertions.assertEquals(Money.of(800), accounts.get(second.getAccountNumber()).getBalance());
+        Assertions.assertNotEquals(second.getAccountNumber(),
+                accountManager.createSavingsAccount(customer, Money.ZERO).getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("Should snapshot only the accounts changed since the last compaction")
+    void testCompactSavesChangedAccounts() throws Exception {
+        BankingService bankingService = newBankingService();
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account first = bankingService.createSavingsAccount(customer);
+        Account second = bankingService.createSavingsAccount(customer);
+        bankingService.confirmTransaction(first, bankingService.processDeposit(first, Money.of(800)));
+        bankingService.confirmTransaction(second, bankingService.processDeposit(second, Money.of(900)));
+        JournalCompactor compactor = new JournalCompactor(bankingService, storage, journal, journal);
+        compactor.compact();
+
+        bankingService.confirmTransaction(first, bankingService.processWithdrawal(first, Money.of(150)));
+
+        Assertions.assertEquals(List.of(first.getAccountNumber()),
+                bankingService.copyChangedAccounts().stream().map(Account::getAccountNumber).toList());
+        bankingService.markUnsaved(List.of(first));
+        compactor.compact();
+
+        Assertions.assertFalse(first.isDirty());
+        Assertions.assertTrue(journal.replay().isEmpty());
+        openStorage();
+        Map<String, Account> accounts = storage.loadAccounts();
+        Assertions.assertEquals(Money.of(650), accounts.get(first.getAccountNumber()).getBalance());
+        Assertions.assertEquals(Money.of(900), accounts.get(second.getAccountNumber()).getBalance());
+    }
+
+    @Test
+    @DisplayName("Should fold a sealed segment left behind by an interrupted compaction")
+    void testCompactFoldsLeftoverSegment() throws Exception {
+        BankingService bankingService = newBankingService();
+        Customer customer = new RegularCustomer("Palal", 21, "+233599968996", "somewhere");
+        Account account = bankingService.createSavingsAccount(customer);
+        bankingService.confirmTransaction(account, bankingService.processDeposit(account, Money.of(800)));
+        storage.saveAccounts(bankingService.viewAllAccounts());
+        // Stops after sealing, before the sealed records reach the history
+        journal.seal();
+
+        openStorage();
+        Map<String, Account> accounts = storage.loadAccounts();
+        journaledStorage.recoverBalances(accounts);
+        Assertions.assertEquals(1, storage.loadTransactions().get(account.getAccountNumber()).size());
+
+        new JournalCompactor(newBankingService(), storage, journal, journal).compact();
+
+        Assertions.assertTrue(journal.readSealed().isEmpty());
+        Assertions.assertEquals(Money.of(800), accounts.get(account.getAccountNumber()).getBalance());
+        Assertions.assertEquals(1, storage.loadTransactions().get(account.getAccountNumber()).size());
+    }
+}
@@ -0,0 +1,131 @@
+package services;
+
+import models.Account;
+import models.CheckingAccount;
+import models.Customer;
+import models.Money;
+import models.RegularCustomer;
+import models.SavingsAccount;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class OffHeapAccountTableTest {
+    private final CustomerRegistry customers = new CustomerRegistry();
+    private final Customer customer = customers.register(
+            new RegularCustomer("Palal", 21, "+233599968996", "somewhere"));
+
+    @Test
+    @DisplayName("Should read back stored accounts with the same details")
+    void testInsertAndFind() {
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        CheckingAccount checking = new CheckingAccount("ACC001", customer, Money.parse("250.75"), "active");
+
+        Assertions.assertTrue(table.insert(checking));
+        Assertions.assertFalse(table.insert(new SavingsAccount("ACC001", customer, Money.of(600), "active")));
+
+        Account found = table.find("ACC001");
+        Assertions.assertInstanceOf(CheckingAccount.class, found);
+        Assertions.assertEquals(checking.toCsv(), found.toCsv());
+        Assertions.assertSame(customer, found.getCustomer());
+        Assertions.assertNull(table.find("ACC002"));
+    }
+
+    @Test
+    @DisplayName("Should share one balance between every copy of an account")
+    void testBalanceShared() throws Exception {
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        SavingsAccount inserted = new SavingsAccount("ACC001", customer, Money.of(600), "active");
+        table.insert(inserted);
+
+        Account first = table.find("ACC001");
+        Account second = table.find("ACC001");
+        first.deposit(Money.of(100));
+        second.withdraw(Money.of(50));
+        inserted.deposit(Money.of(5));
+
+        Assertions.assertEquals(Money.of(655), first.getBalance());
+        Assertions.assertEquals(Money.of(655), table.find("ACC001").getBalance());
+        Assertions.assertEquals(Money.of(655).minorUnits(), table.totalBalanceMinorUnits());
+    }
+
+    @Test
+    @DisplayName("Should share the unsaved-changes mark between every copy of an account")
+    void testDirtyShared() {
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        table.insert(new SavingsAccount("ACC001", customer, Money.of(600), "active"));
+        table.insert(new SavingsAccount("ACC002", customer, Money.of(600), "active"));
+
+        Assertions.assertTrue(table.find("ACC001").clearDirty());
+        Assertions.assertTrue(table.find("ACC002").clearDirty());
+        Assertions.assertFalse(table.find("ACC001").isDirty());
+
+        table.find("ACC001").deposit(Money.of(100));
+
+        Assertions.assertTrue(table.find("ACC001").isDirty());
+        Assertions.assertFalse(table.find("ACC002").isDirty());
+        Assertions.assertEquals(List.of("ACC001"), table.changed().stream().map(Account::getAccountNumber).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep a monthly fee changed through any copy of an account")
+    void testMonthlyFeeWrittenThrough() {
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        table.insert(new CheckingAccount("ACC001", customer, Money.of(600), "active"));
+        Account found = table.find("ACC001");
+        found.clearDirty();
+
+        ((CheckingAccount) found).setMonthlyFee(Money.ZERO);
+
+        CheckingAccount again = (CheckingAccount) table.find("ACC001");
+        Assertions.assertEquals(Money.ZERO, again.getMonthlyFee());
+        Assertions.assertTrue(again.isDirty());
+        Assertions.assertEquals(Money.ZERO, ((CheckingAccount) AccountManager.detachedCopy(again)).getMonthlyFee());
+    }
+
+    @Test
+    @DisplayName("Should never let concurrent withdrawals pass the overdraft limit")
+    void testConcurrentWithdrawals() throws InterruptedException {
+        final int THREADS = 8;
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        table.insert(new CheckingAccount("ACC001", customer, Money.ZERO, "active"));
+
+        Thread[] workers = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            workers[i] = new Thread(() -> {
+                Account account = table.find("ACC001");
+                for (int n = 0; n < 1_000; n++) {
+                    try {
+                        account.withdraw(Money.of(1));
+                    } catch (Exception ignored) {
+                        // Expected once the overdraft limit is reached
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Assertions.assertEquals(Money.of(-1000), table.find("ACC001").getBalance());
+        Assertions.assertEquals(Money.of(-1000).minorUnits(), table.totalBalanceMinorUnits());
+    }
+
+    @Test
+    @DisplayName("Should page accounts in account number order across chunks")
+    void testPaging() {
+        final int ACCOUNTS = 20_000;
+        OffHeapAccountTable table = new OffHeapAccountTable(customers);
+        for (int i = ACCOUNTS; i >= 1; i--) {
+            table.insert(new CheckingAccount(String.format("ACC%03d", i), customer, Money.of(1), "active"));
+        }
+
+        List<Account> page = table.page("ACC999", 2);
+        Assertions.assertEquals(List.of("ACC1000", "ACC1001"),
+                page.stream().map(Account::getAccountNumber).toList());
+        Assertions.assertEquals(ACCOUNTS, table.size());
+        Assertions.assertEquals(ACCOUNTS, table.all().size());
+        Assertions.assertEquals(Money.of(ACCOUNTS).minorUnits(), table.totalBalanceMinorUnits());
+    }
+}
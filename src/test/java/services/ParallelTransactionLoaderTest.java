@@ -0,0 +1,66 @@
+package services;
+
+import models.Money;
+import models.Transaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelTransactionLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should keep file order and first duplicate across many chunks")
+    void testLoadLargeFileDeterministically() throws IOException {
+        final int ROWS = 60_000;
+        String time = "2025-12-10T08:45:12.345Z";
+
+        List<String> lines = new ArrayList<>();
+        lines.add("#transactionId,transactionType,accountNumber,amount,balanceAfter,timestamp");
+        for (int i = 1; i <= ROWS; i++) {
+            String account = "ACC00" + (i % 3);
+            lines.add("TXN" + i + ",Deposit," + account + "," + i + ".0," + i + ".0," + time);
+        }
+        // Duplicate of the first row with a different amount, written at the end of the file
+        lines.add("TXN1,Deposit,ACC001,999.0,999.0," + time);
+
+        Path path = tempDir.resolve("transactions.txt");
+        Files.write(path, lines);
+
+        ParallelTransactionLoader loader = new ParallelTransactionLoader(
+                new ForkJoinPool(4), FileStorageService::parseTransaction);
+        Map<String, List<Transaction>> loaded = loader.load(path);
+
+        Assertions.assertEquals(ROWS, loaded.values().stream().mapToInt(List::size).sum());
+
+        List<Transaction> first = loaded.get("ACC001");
+        Assertions.assertEquals("TXN1", first.getFirst().getTransactionId());
+        Assertions.assertEquals(Money.of(1), first.getFirst().getAmount());
+        for (int i = 1; i < first.size(); i++) {
+            Assertions.assertEquals(first.get(i - 1).getAmount().plus(Money.of(3)), first.get(i).getAmount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should return no transactions for an empty file")
+    void testLoadEmptyFile() throws IOException {
+        Path path = tempDir.resolve("transactions.txt");
+        Files.createFile(path);
+
+        ParallelTransactionLoader loader = new ParallelTransactionLoader(
+                ForkJoinPool.commonPool(), FileStorageService::parseTransaction);
+
+        Assertions.assertTrue(loader.load(path).isEmpty());
+    }
+}
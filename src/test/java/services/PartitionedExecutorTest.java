@@ -0,0 +1,56 @@
+package services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class PartitionedExecutorTest {
+
+    private PartitionedExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = new PartitionedExecutor(4);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should round lane count up to a power of two")
+    void testLaneCountRounding() {
+        Assertions.assertEquals(4, executor.getLaneCount());
+        Assertions.assertEquals(8, new PartitionedExecutor(5).getLaneCount());
+    }
+
+    @Test
+    @DisplayName("Should run tasks for the same key in submission order")
+    void testSubmissionOrderPerKey() throws Exception {
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            int sequence = i;
+            futures.add(executor.submit("ACC001", () -> first.add(sequence)));
+            futures.add(executor.submit("ACC002", () -> second.add(sequence)));
+        }
+        for (Future<?> future : futures) future.get();
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, first.get(i));
+            Assertions.assertEquals(i, second.get(i));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package services;
+
+import interfaces.DataStorageService;
+import models.Money;
+import models.Transaction;
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.id.TransactionIdGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class SegmentedTransactionStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path segmentDirectory;
+    private DataStorageService flatStorage;
+
+    @BeforeEach
+    void setup() {
+        segmentDirectory = tempDir.resolve("transactions");
+        flatStorage = new FileStorageService(
+                tempDir.resolve("accounts.txt").toString(), tempDir.resolve("transactions.txt").toString());
+    }
+
+    private SegmentedTransactionStorageService open(int maxRows, int loadWindowDays) {
+        return new SegmentedTransactionStorageService(flatStorage, segmentDirectory.toString(), maxRows, loadWindowDays);
+    }
+
+    private static Transaction transaction(int number, String accountNumber, String timestamp) {
+        return new Transaction(String.format("TXN%03d", number), TransactionType.DEPOSIT, accountNumber,
+                Money.of(10), Money.of(10L * number), timestamp);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(segmentDirectory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll segments by day and by size and load them all back")
+    void testRollsSegments() throws IOException {
+        SegmentedTransactionStorageService storage = open(2, 0);
+        storage.appendTransactions(List.of(
+                transaction(1, "ACC001", "2025-12-10T08:00:00Z"),
+                transaction(2, "ACC002", "2025-12-10T09:00:00Z"),
+                transaction(3, "ACC001", "2025-12-10T10:00:00Z"),
+                transaction(4, "ACC001", "2025-12-11T08:00:00Z")));
+
+        Assertions.assertEquals(List.of(
+                "transactions-2025-12-10-001.csv", "transactions-2025-12-10-002.csv", "transactions-2025-12-11-001.csv"),
+                segmentFiles().stream().map(path -> path.getFileName().toString()).toList());
+
+        Map<String, List<Transaction>> loaded = open(2, 0).loadTransactions();
+        Assertions.assertEquals(List.of("TXN001", "TXN003", "TXN004"),
+                loaded.get("ACC001").stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(1, loaded.get("ACC002").size());
+        Assertions.assertEquals(4, open(2, 0).getMaxTransactionNumber());
+    }
+
+    @Test
+    @DisplayName("Should answer range queries without reading segments outside the range")
+    void testRangeQuerySkipsSegments() throws IOException {
+        SegmentedTransactionStorageService storage = open(100, 0);
+        storage.appendTransactions(List.of(
+                transaction(1, "ACC001", "2025-12-10T08:00:00Z"),
+                transaction(2, "ACC002", "2025-12-11T08:00:00Z")));
+        // Rows of the first day can no longer be parsed, so reading that segment would fail
+        Path firstDay = segmentDirectory.resolve("transactions-2025-12-10-001.csv");
+        String text = Files.readString(firstDay);
+        Files.writeString(firstDay, text.replace("TXN001,", "broken,"));
+
+        SegmentedTransactionStorageService reopened = open(100, 0);
+        List<Transaction> secondDay = reopened.loadTransactionsBetween(
+                Instant.parse("2025-12-11T00:00:00Z"), Instant.parse("2025-12-12T00:00:00Z"));
+
+        Assertions.assertEquals(List.of("TXN002"), secondDay.stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(1, reopened.loadAccountTransactions("ACC002").size());
+        Assertions.assertThrows(IllegalArgumentException.class, reopened::loadTransactions);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the footer of a segment whose last append was cut short")
+    void testRebuildsTornFooter() throws IOException {
+        open(100, 0).appendTransactions(List.of(
+                transaction(1, "ACC001", "2025-12-10T08:00:00Z"),
+                transaction(2, "ACC001", "2025-12-10T09:00:00Z")));
+        Path segment = segmentDirectory.resolve("transactions-2025-12-10-001.csv");
+        String text = Files.readString(segment);
+        // Drops the footer and leaves half of a new row behind it
+        Files.writeString(segment, text.substring(0, text.indexOf("#segment")) + "TXN003,Deposit,ACC0");
+
+        SegmentedTransactionStorageService reopened = open(100, 0);
+        reopened.appendTransactions(List.of(transaction(3, "ACC001", "2025-12-10T10:00:00Z")));
+
+        Assertions.assertEquals(List.of("TXN001", "TXN002", "TXN003"),
+                open(100, 0).loadTransactions().get("ACC001").stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertTrue(Files.readString(segment).endsWith("#segment,3," +
+                Transaction.toEpochMicros(Instant.parse("2025-12-10T08:00:00Z")) + "," +
+                Transaction.toEpochMicros(Instant.parse("2025-12-10T10:00:00Z")) + ",ACC001,ACC001,1,3\n"));
+    }
+
+    @Test
+    @DisplayName("Should load only recent segments while keeping older IDs known")
+    void testLoadWindow() throws IOException {
+        Instant now = Instant.now();
+        open(100, 0).appendTransactions(List.of(
+                transaction(1, "ACC001", now.minus(40, ChronoUnit.DAYS).toString()),
+                transaction(2, "ACC001", now.minus(1, ChronoUnit.HOURS).toString())));
+
+        SegmentedTransactionStorageService recentOnly = open(100, 7);
+        Map<String, List<Transaction>> loaded = recentOnly.loadTransactions();
+
+        Assertions.assertEquals(List.of("TXN002"),
+                loaded.get("ACC001").stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(2, recentOnly.getMaxTransactionNumber());
+    }
+
+    @Test
+    @DisplayName("Should rebuild a segment whose append left pieces of the old footer behind")
+    void testRebuildsOverwrittenFooter() throws IOException {
+        open(100, 0).appendTransactions(List.of(
+                transaction(1, "ACC001", "2025-12-10T08:00:00Z"),
+                transaction(2, "ACC001", "2025-12-10T09:00:00Z")));
+        Path segment = segmentDirectory.resolve("transactions-2025-12-10-001.csv");
+        String text = Files.readString(segment);
+        String footer = text.substring(text.indexOf("#segment"));
+        // A new row written over the start of the footer, with the rest of the footer still behind it
+        String row = transaction(3, "ACC001", "2025-12-10T10:00:00Z").toCsv() + "\n";
+        Files.writeString(segment, text.substring(0, text.indexOf("#segment")) + row + footer.substring(row.length()));
+
+        SegmentedTransactionStorageService reopened = open(100, 0);
+
+        Assertions.assertEquals(List.of("TXN001", "TXN002", "TXN003"),
+                reopened.loadTransactions().get("ACC001").stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(3, reopened.getMaxTransactionNumber());
+        Assertions.assertTrue(Files.readString(segment).endsWith(",ACC001,ACC001,1,3\n"));
+    }
+
+    @Test
+    @DisplayName("Should answer history queries past the load window from the older segments")
+    void testQueriesReachPastLoadWindow() throws IOException {
+        Instant now = Instant.now();
+        open(100, 0).appendTransactions(List.of(
+                transaction(1, "ACC001", now.minus(40, ChronoUnit.DAYS).toString()),
+                transaction(2, "ACC001", now.minus(1, ChronoUnit.HOURS).toString())));
+
+        SegmentedTransactionStorageService recentOnly = open(100, 7);
+        TransactionManager transactionManager =
+                new TransactionManager(new TransactionIdGenerator(), recentOnly.loadTransactions(), recentOnly);
+
+        Assertions.assertEquals(2, transactionManager.getTransactionSummary("ACC001").transactionCount());
+        Assertions.assertEquals(Money.of(20), transactionManager.getTransactionSummary("ACC001").totalDeposits());
+        Assertions.assertEquals(List.of("TXN002", "TXN001"), transactionManager.viewTransactionsByAccount("ACC001")
+                .stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN001", "TXN002"), transactionManager
+                .viewTransactionsBetween(now.minus(50, ChronoUnit.DAYS), now)
+                .stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN001"), transactionManager
+                .viewTransactionsBetween("ACC001", now.minus(50, ChronoUnit.DAYS), now.minus(30, ChronoUnit.DAYS))
+                .stream().map(Transaction::getTransactionId).toList());
+    }
+
+    @Test
+    @DisplayName("Should move a flat history into segments and compress old ones")
+    void testMovesFlatHistoryAndCompresses() throws IOException {
+        flatStorage.saveTransactions(List.of(
+                transaction(1, "ACC001", "2025-12-10T08:00:00Z"),
+                transaction(2, "ACC001", "2025-12-11T08:00:00Z")));
+        SegmentedTransactionStorageService storage = open(100, 0);
+
+        Assertions.assertEquals(2, storage.loadTransactions().get("ACC001").size());
+        Assertions.assertTrue(flatStorage.loadTransactions().isEmpty());
+
+        Assertions.assertEquals(1, storage.compressSegmentsBefore(LocalDate.parse("2025-12-11")));
+
+        SegmentedTransactionStorageService reopened = open(100, 0);
+        Assertions.assertEquals(List.of("TXN001", "TXN002"),
+                reopened.loadTransactions().get("ACC001").stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(1, reopened.loadTransactionsBetween(
+                Instant.parse("2025-12-10T00:00:00Z"), Instant.parse("2025-12-11T00:00:00Z")).size());
+        Assertions.assertTrue(Files.exists(segmentDirectory.resolve("transactions-2025-12-10-001.csv.gz")));
+    }
+}
@@ -1,6 +1,9 @@
 package services;
 
+import models.Money;
 import models.Transaction;
+import models.TransactionPage;
+import models.TransactionSummary;
 import models.enums.TransactionType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import utils.id.TransactionIdGenerator;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,15 +51,15 @@ public class TransactionManagerTest {
                 "TXN001",
                 TransactionType.DEPOSIT,
                 "ACC001",
-                1000,
-                2000,
+                Money.of(1000),
+                Money.of(2000),
                 time);
         Transaction withdrawal = new Transaction(
                 "TXN002",
                 TransactionType.WITHDRAWAL,
                 "ACC001",
-                50,
-                1500,
+                Money.of(50),
+                Money.of(1500),
                 time);
 
         transactionManager.addTransaction(deposit);
@@ -70,8 +74,8 @@ public class TransactionManagerTest {
     @Test
     @DisplayName("Should have 0 total deposits on initialization")
     void testTotalDepositsEmpty() {
-        double expected = 0;
-        double actual = transactionManager.calculateTotalDeposits("ACC001");
+        Money expected = Money.ZERO;
+        Money actual = transactionManager.calculateTotalDeposits("ACC001");
 
         Assertions.assertEquals(expected, actual);
     }
@@ -79,8 +83,8 @@ public class TransactionManagerTest {
     @Test
     @DisplayName("Should have 0 total withdrawal on initialization")
     void testTotalWithdrawalsEmpty() {
-        double expected = 0;
-        double actual = transactionManager.calculateTotalWithdrawals("ACC001");
+        Money expected = Money.ZERO;
+        Money actual = transactionManager.calculateTotalWithdrawals("ACC001");
 
         Assertions.assertEquals(expected, actual);
     }
@@ -90,22 +94,85 @@ public class TransactionManagerTest {
     void testTransactionTotalAfterTransaction() {
         String time = "2025-12-10T08:45:12.345Z";
         Transaction deposit  = new Transaction(
-                "TXN001", TransactionType.DEPOSIT, "ACC001", 1000, 2000, time);
+                "TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(2000), time);
         Transaction withdrawal = new Transaction(
-                "TXN002", TransactionType.WITHDRAWAL, "ACC001", 50, 1500, time);
+                "TXN002", TransactionType.WITHDRAWAL, "ACC001", Money.of(50), Money.of(1500), time);
         Transaction secondDeposit = new Transaction(
-                "TXN003", TransactionType.WITHDRAWAL, "ACC002", 500, 500, time);
+                "TXN003", TransactionType.WITHDRAWAL, "ACC002", Money.of(500), Money.of(500), time);
 
         transactionManager.addTransaction(deposit);
         transactionManager.addTransaction(withdrawal);
         transactionManager.addTransaction(secondDeposit);
 
-        double expectedTotalWithdrawals = 50;
-        double expectedTotalDeposits = 1000;
-        double actualTotalWithdrawals = transactionManager.calculateTotalWithdrawals("ACC001");
-        double actualTotalDeposits = transactionManager.calculateTotalDeposits("ACC001");
+        Money expectedTotalWithdrawals = Money.of(50);
+        Money expectedTotalDeposits = Money.of(1000);
+        Money actualTotalWithdrawals = transactionManager.calculateTotalWithdrawals("ACC001");
+        Money actualTotalDeposits = transactionManager.calculateTotalDeposits("ACC001");
 
         Assertions.assertEquals(expectedTotalWithdrawals, actualTotalWithdrawals);
         Assertions.assertEquals(expectedTotalDeposits, actualTotalDeposits);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should rebuild running totals from loaded history")
+    void testTransactionSummaryFromLoadedHistory() {
+        String time = "2025-12-10T08:45:12.345Z";
+        Map<String, List<Transaction>> loaded = new HashMap<>();
+        loaded.put("ACC001", List.of(
+                new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(1000), Money.of(1000), time),
+                new Transaction("TXN002", TransactionType.WITHDRAWAL, "ACC001", Money.parse("250.5"), Money.parse("749.5"), time)));
+
+        TransactionManager manager = new TransactionManager(transactionIdGenerator, loaded);
+        manager.addTransaction(new Transaction("TXN003", TransactionType.TRANSFER_IN, "ACC001", Money.of(100), Money.parse("849.5"), time));
+
+        TransactionSummary summary = manager.getTransactionSummary("ACC001");
+
+        Assertions.assertEquals(3, summary.transactionCount());
+        Assertions.assertEquals(Money.of(1100), summary.totalDeposits());
+        Assertions.assertEquals(Money.parse("250.5"), summary.totalWithdrawals());
+        Assertions.assertEquals(Money.parse("849.5"), summary.netChange());
+        Assertions.assertEquals(TransactionSummary.EMPTY, manager.getTransactionSummary("ACC002"));
+    }
+
+    @Test
+    @DisplayName("Should page history newest first using cursors")
+    void testTransactionPaging() {
+        String time = "2025-12-10T08:45:12.345Z";
+        for (int i = 1; i <= 5; i++) {
+            transactionManager.addTransaction(
+                    new Transaction("TXN00" + i, TransactionType.DEPOSIT, "ACC001", Money.of(10), Money.of(10 * i), time));
+        }
+
+        TransactionPage newest = transactionManager.viewRecentTransactions("ACC001", 2);
+        TransactionPage older = transactionManager.viewOlderTransactions("ACC001", newest.nextCursor(), 2);
+        TransactionPage oldest = transactionManager.viewOlderTransactions("ACC001", older.nextCursor(), 2);
+
+        Assertions.assertEquals(List.of("TXN005", "TXN004"), newest.transactions().stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN003", "TXN002"), older.transactions().stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN001"), oldest.transactions().stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertFalse(oldest.hasOlder());
+        Assertions.assertEquals(TransactionPage.EMPTY, transactionManager.viewRecentTransactions("ACC002", 2));
+    }
+
+    @Test
+    @DisplayName("Should return only transactions inside the time window")
+    void testTransactionsBetween() {
+        transactionManager.addTransaction(
+                new Transaction("TXN001", TransactionType.DEPOSIT, "ACC001", Money.of(10), Money.of(10), "2025-12-10T08:00:00Z"));
+        transactionManager.addTransaction(
+                new Transaction("TXN002", TransactionType.DEPOSIT, "ACC002", Money.of(10), Money.of(10), "2025-12-10T09:00:00.500Z"));
+        transactionManager.addTransaction(
+                new Transaction("TXN003", TransactionType.WITHDRAWAL, "ACC001", Money.of(5), Money.of(5), "2025-12-10T09:00:00Z"));
+        transactionManager.addTransaction(
+                new Transaction("TXN004", TransactionType.DEPOSIT, "ACC001", Money.of(10), Money.of(15), "2025-12-10T10:00:00Z"));
+
+        Instant from = Instant.parse("2025-12-10T09:00:00Z");
+        Instant to = Instant.parse("2025-12-10T10:00:00Z");
+
+        Assertions.assertEquals(List.of("TXN003", "TXN002"),
+                transactionManager.viewTransactionsBetween(from, to).stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertEquals(List.of("TXN003"),
+                transactionManager.viewTransactionsBetween("ACC001", from, to).stream().map(Transaction::getTransactionId).toList());
+        Assertions.assertTrue(transactionManager.viewTransactionsBetween("ACC003", from, to).isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package services;
+
+import interfaces.TransactionJournal;
+import models.Money;
+import models.Transaction;
+import models.enums.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import services.enums.FsyncPolicy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindJournalTest {
+
+    /**
+     * Records what reaches the disk, optionally holding the first write until released.
+     */
+    private static class RecordingJournal implements TransactionJournal {
+        private final CountDownLatch release;
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<String> written = new ArrayList<>();
+        private int flushes;
+        private IOException failure;
+
+        RecordingJournal(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void append(Transaction transaction) throws IOException {
+            appendAll(List.of(transaction));
+        }
+
+        @Override
+        public void appendAll(List<Transaction> transactions) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (failure != null) throw failure;
+            synchronized (this) {
+                batchSizes.add(transactions.size());
+                transactions.forEach(t -> written.add(t.getTransactionId()));
+            }
+        }
+
+        @Override
+        public synchronized void flush() {
+            flushes++;
+        }
+    }
+
+    private static Transaction transaction(int number) {
+        return new Transaction("TXN" + number, TransactionType.DEPOSIT, "ACC001", Money.of(1), Money.of(number), 0L);
+    }
+
+    @Test
+    @DisplayName("Should write queued transactions in order and group them into batches")
+    void testGroupCommit() throws IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingJournal disk = new RecordingJournal(release);
+        WriteBehindJournal journal = new WriteBehindJournal(disk, 1_000, 100, FsyncPolicy.ON_FLUSH, 1, TimeUnit.SECONDS);
+
+        for (int i = 1; i <= 250; i++) journal.append(transaction(i));
+        release.countDown();
+        journal.flush();
+
+        Assertions.assertEquals(250, disk.written.size());
+        Assertions.assertEquals("TXN1", disk.written.get(0));
+        Assertions.assertEquals("TXN250", disk.written.get(249));
+        Assertions.assertTrue(disk.batchSizes.size() <= 4, "Queued records should be written in batches");
+        Assertions.assertEquals(1, disk.flushes);
+
+        journal.close();
+        Assertions.assertThrows(IOException.class, () -> journal.append(transaction(251)));
+    }
+
+    @Test
+    @DisplayName("Should block appends while the queue is full until the writer catches up")
+    void testBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingJournal disk = new RecordingJournal(release);
+        WriteBehindJournal journal = new WriteBehindJournal(disk, 2, 1, FsyncPolicy.EVERY_BATCH, 1, TimeUnit.SECONDS);
+
+        // The writer holds the first record while the next two fill the queue
+        for (int i = 1; i <= 3; i++) journal.append(transaction(i));
+        Thread producer = new Thread(() -> {
+            try {
+                journal.append(transaction(4));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        producer.start();
+        producer.join(200);
+        Assertions.assertTrue(producer.isAlive(), "Append should wait for space in the queue");
+
+        release.countDown();
+        producer.join(5_000);
+        Assertions.assertFalse(producer.isAlive());
+
+        journal.close();
+        Assertions.assertEquals(List.of("TXN1", "TXN2", "TXN3", "TXN4"), disk.written);
+        Assertions.assertEquals(4, disk.flushes);
+    }
+
+    @Test
+    @DisplayName("Should write transactions appended together in the same batch")
+    void testGroupsStayTogether() throws IOException {
+        RecordingJournal disk = new RecordingJournal(new CountDownLatch(0));
+        WriteBehindJournal journal = new WriteBehindJournal(disk, 10, 1, FsyncPolicy.EVERY_BATCH, 1, TimeUnit.SECONDS);
+
+        journal.append(transaction(1));
+        journal.appendAll(List.of(transaction(2), transaction(3)));
+        journal.close();
+
+        Assertions.assertEquals(List.of("TXN1", "TXN2", "TXN3"), disk.written);
+        Assertions.assertEquals(List.of(1, 2), disk.batchSizes);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new WriteBehindJournal(
+                disk, 1, 1, FsyncPolicy.EVERY_BATCH, 1, TimeUnit.SECONDS).appendAll(List.of(transaction(4), transaction(5))));
+    }
+
+    @Test
+    @DisplayName("Should report a failed write on the next flush and append")
+    void testWriteFailure() throws IOException {
+        RecordingJournal disk = new RecordingJournal(new CountDownLatch(0));
+        disk.failure = new IOException("Disk full");
+        WriteBehindJournal journal = new WriteBehindJournal(disk, 10, 10, FsyncPolicy.INTERVAL, 10, TimeUnit.MILLISECONDS);
+
+        journal.append(transaction(1));
+
+        IOException flushError = Assertions.assertThrows(IOException.class, journal::flush);
+        Assertions.assertEquals("Disk full", flushError.getCause().getMessage());
+        Assertions.assertThrows(IOException.class, () -> journal.append(transaction(2)));
+    }
+}
@@ -15,7 +15,8 @@ public class ValidationUtilTest {
             "null, Name cannot be empty.",
             "A, 'Name must contain only letters and spaces, and be at least 2 characters long.'",
             "John3, 'Name must contain only letters and spaces, and be at least 2 characters long.'",
-            "J@ne, 'Name must contain only letters and spaces, and be at least 2 characters long.'"
+            "J@ne, 'Name must contain only letters and spaces, and be at least 2 characters long.'",
+            "Abcdefghij Abcdefghij Abcdefghij Abcdefghij Abcdefghij Abcdefghij, 'Name must be at most 63 characters long.'"
     })
     @DisplayName("Should return error message for invalid name")
     void testValidateNameInvalid(String input, String expectedError) {
@@ -55,9 +56,10 @@ public class ValidationUtilTest {
     @ParameterizedTest(name = "Invalid account ''{0}'' should return ''{1}''")
     @CsvSource({
             "'', 'Account number cannot be empty.'",
-            "ACC12, 'Account number must start with ''ACC'' followed by 3 digits (e.g., ACC123).'",
-            "AC1234, 'Account number must start with ''ACC'' followed by 3 digits (e.g., ACC123).'",
-            "ACCABC, 'Account number must start with ''ACC'' followed by 3 digits (e.g., ACC123).'"
+            "ACC12, 'Account number must start with ''ACC'' followed by at least 3 digits (e.g., ACC123).'",
+            "AC1234, 'Account number must start with ''ACC'' followed by at least 3 digits (e.g., ACC123).'",
+            "ACC1234567890123456789, 'Account number must start with ''ACC'' followed by at least 3 digits (e.g., ACC123).'",
+            "ACCABC, 'Account number must start with ''ACC'' followed by at least 3 digits (e.g., ACC123).'"
     })
     @DisplayName("Should return error message for invalid account number")
     void testValidateAccountNumberInvalid(String input, String expectedError) {
@@ -65,7 +67,7 @@ public class ValidationUtilTest {
     }
 
     @ParameterizedTest(name = "Valid account ''{0}'' should return null")
-    @ValueSource(strings = {"ACC001", "ACC123", "ACC999"})
+    @ValueSource(strings = {"ACC001", "ACC123", "ACC999", "ACC1000", "ACC4294967296"})
     @DisplayName("Should not return error message for valid account number")
     void testValidateAccountNumberValid(String input) {
         assertNull(ValidationUtil.validateAccountNumber(input));
@@ -74,8 +76,9 @@ public class ValidationUtilTest {
     @ParameterizedTest(name = "Invalid address ''{0}'' should return ''{1}''")
     @CsvSource({
             "'', Address cannot be empty.",
-            "a, 'Address must be 5–100 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.'",
-            "###, 'Address must be 5–100 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.'"
+            "a, 'Address must be 5–95 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.'",
+            "###, 'Address must be 5–95 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.'",
+            "12345678901234567890123456789012345678901234567890123456789012345678901234567890123456789012345 Main, 'Address must be 5–95 characters and can include letters, numbers, spaces, commas, periods, apostrophes, and hyphens.'"
     })
     @DisplayName("Should return error message for invalid address")
     void testValidateAddressInvalid(String input, String expectedError) {
@@ -0,0 +1,69 @@
+package utils.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import services.exceptions.InvalidAccountNumberException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AtomicIdGeneratorTest {
+
+    @Test
+    @DisplayName("Should pad to three digits and keep growing past 999")
+    void testFormatting() {
+        AccountIdGenerator generator = new AccountIdGenerator();
+
+        Assertions.assertEquals("ACC001", generator.generateId());
+
+        generator.setIdCounter(998);
+        Assertions.assertEquals("ACC999", generator.generateId());
+        Assertions.assertEquals("ACC1000", generator.generateId());
+
+        generator.setIdCounter(4_999_999_999L);
+        Assertions.assertEquals("ACC5000000000", generator.generateId());
+    }
+
+    @Test
+    @DisplayName("Should extract the numeric index from old and new IDs")
+    void testExtractIndex() {
+        AccountIdGenerator generator = new AccountIdGenerator();
+
+        Assertions.assertEquals(7, generator.extractIndex("ACC007"));
+        Assertions.assertEquals(5_000_000_000L, generator.extractIndex("ACC5000000000"));
+        Assertions.assertThrows(InvalidAccountNumberException.class, () -> generator.extractIndex("ACC12"));
+        Assertions.assertThrows(InvalidAccountNumberException.class, () -> generator.extractIndex("TXN123"));
+    }
+
+    @Test
+    @DisplayName("Should continue after the recovered counter")
+    void testSetIdCounter() {
+        TransactionIdGenerator generator = new TransactionIdGenerator();
+        generator.generateId();
+
+        generator.setIdCounter(1500);
+
+        Assertions.assertEquals(1501, generator.extractIndex(generator.generateId()));
+    }
+
+    @Test
+    @DisplayName("Should never hand out the same ID to concurrent threads")
+    void testConcurrentUniqueness() throws InterruptedException {
+        final int THREADS = 8;
+        final int IDS_PER_THREAD = 10_000;
+        AtomicIdGenerator generator = new AtomicIdGenerator("TXN", 16);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        Thread[] workers = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            workers[i] = new Thread(() -> {
+                for (int n = 0; n < IDS_PER_THREAD; n++) ids.add(generator.generateId());
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Assertions.assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+}